@@ -0,0 +1,66 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Boxed ReturningAnOptional.average against the primitive PrimitiveAverages API.
+// Run with the GC profiler: gc.alloc.rate.norm is the number of bytes allocated per call.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AverageBenchmark {
+
+    @Param({ "2", "1000", "1000000" })
+    int size;
+
+    int[] scores;
+
+    @Setup
+    public void setUp() {
+        scores = new SplittableRandom(42).ints(size, 0, 101).toArray();
+    }
+
+    @Benchmark
+    public Optional<Double> boxed() {
+        return ReturningAnOptional.average(scores);
+    }
+
+    @Benchmark
+    public OptionalDouble primitive() {
+        return PrimitiveAverages.average(scores);
+    }
+
+    @Benchmark
+    public double primitiveOrElse() {
+        return PrimitiveAverages.averageOrElse(Double.NaN, scores);
+    }
+
+    @Benchmark
+    public OptionalDouble intStream() {
+        return PrimitiveAverages.average(IntStream.of(scores));
+    }
+
+    @Benchmark
+    public OptionalDouble parallel() {
+        return PrimitiveAverages.parallelAverage(scores);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AverageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,69 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// The three word-building variants of CommonStreamOperations against ConcatenatingCollector.
+// The reduce forms are quadratic, so they are only worth running for the smaller sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcatenationBenchmark {
+
+    @Param({ "1000", "100000" })
+    int fragments;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    List<String> words;
+
+    @Setup
+    public void setUp() {
+        String[] array = new String[fragments];
+        Arrays.setAll(array, i -> Integer.toString(i, 36));
+        words = List.of(array);
+    }
+
+    private Stream<String> stream() {
+        return parallel ? words.parallelStream() : words.stream();
+    }
+
+    @Benchmark
+    public String reduceLambda() {
+        return stream().reduce("", (z, c) -> z + c);
+    }
+
+    @Benchmark
+    public String reduceConcat() {
+        return stream().reduce("", String::concat);
+    }
+
+    @Benchmark
+    public String collectStringBuilder() {
+        return stream().collect(StringBuilder::new, StringBuilder::append, StringBuilder::append).toString();
+    }
+
+    @Benchmark
+    public String concatenatingCollector() {
+        return stream().collect(ConcatenatingCollector.concatenating());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConcatenationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Sorts 1 GB to 10 GB of encoded longs (12 bytes per record on disk) through ExternalSort
+// with a fixed 64 MB budget, in a 512 MB heap. peakHeapBytes should stay flat across sizes;
+// an in-memory sorted() of the same input would not even fit.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx512m" })
+public class ExternalSortBenchmark {
+
+    @Param({ "1024", "4096", "10240" })
+    long inputMegabytes;
+
+    @Param({ "67108864" })
+    long memoryBudgetBytes;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+        public long peakHeapBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+                if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+
+        @TearDown(Level.Iteration)
+        public void record() {
+            peakHeapBytes = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+                if (pool.getType() == MemoryType.HEAP) peakHeapBytes += pool.getPeakUsage().getUsed();
+        }
+    }
+
+    @Benchmark
+    public long externalSort(HeapCounters counters) {
+        long elements = inputMegabytes * 1024 * 1024 / (Long.BYTES + Integer.BYTES);
+        try (Stream<Long> sorted = ExternalSort.sorted(SplittableRandomStreams.longs(42, elements).boxed(),
+                Comparator.naturalOrder(), BinaryCodec.LONG, memoryBudgetBytes, 1_000_000, true)) {
+            return sorted.count();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ExternalSortBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,85 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// flatMap(m -> m.stream()) and Stream.concat from CommonIntermediateOperations against
+// Flattening.flatten, over many tiny inner lists (0 to maxInnerSize elements, some empty).
+// Run with the GC profiler to see the bytes allocated per operation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlatteningBenchmark {
+
+    @Param({ "100000" })
+    int lists;
+
+    @Param({ "2", "16" })
+    int maxInnerSize;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    List<List<String>> animals;
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        animals = new ArrayList<>(lists);
+        for (int i = 0; i < lists; i++) {
+            int size = random.nextInt(maxInnerSize + 1);
+            List<String> inner = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) inner.add("Gorilla " + j);
+            animals.add(inner);
+        }
+    }
+
+    @Benchmark
+    public long flatMap() {
+        Stream<List<String>> stream = parallel ? animals.parallelStream() : animals.stream();
+        return stream.flatMap(m -> m.stream()).filter(s -> s.length() > 8).count();
+    }
+
+    // Only practical for a handful of streams: a deep concat chain would overflow the stack
+    @Benchmark
+    public long concatFirstHundred() {
+        Stream<String> stream = Stream.empty();
+        for (List<String> inner : animals.subList(0, 100)) stream = Stream.concat(stream, inner.stream());
+        return (parallel ? stream.parallel() : stream).filter(s -> s.length() > 8).count();
+    }
+
+    @Benchmark
+    public long flatMapFirstHundred() {
+        Stream<List<String>> stream = animals.subList(0, 100).stream();
+        return (parallel ? stream.parallel() : stream).flatMap(m -> m.stream()).filter(s -> s.length() > 8).count();
+    }
+
+    @Benchmark
+    public long flatten() {
+        return Flattening.<String>flatten(animals, parallel).filter(s -> s.length() > 8).count();
+    }
+
+    @Benchmark
+    public long flattenFirstHundred() {
+        return Flattening.<String>flatten(animals.subList(0, 100), parallel).filter(s -> s.length() > 8).count();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FlatteningBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Counting, filtering and grouping the lines of a 1 GB or 4 GB CSV file ("animal,action,number"),
+// with Files.lines against MappedLines, sequentially and in parallel.
+// The file is written once per trial into the temp directory and deleted afterwards.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class MappedLinesBenchmark {
+
+    private static final String[] ANIMALS = { "duck", "goose", "swan", "heron", "coot", "gosling", "bettle", "insect" };
+
+    @Param({ "1024", "4096" })
+    long fileMegabytes;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    Path file;
+    MappedLines mapped;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped-lines-benchmark", ".csv");
+        SplittableRandom random = new SplittableRandom(42);
+        long target = fileMegabytes * 1024 * 1024, written = 0;
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            while (written < target) {
+                String line = ANIMALS[random.nextInt(ANIMALS.length)] + ",floats," + random.nextInt(1_000_000);
+                out.write(line);
+                out.write('\n');
+                written += line.length() + 1;
+            }
+        }
+        mapped = MappedLines.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        mapped.close();
+        Files.deleteIfExists(file);
+    }
+
+    private Stream<String> filesLines() throws IOException {
+        Stream<String> lines = Files.lines(file);
+        return parallel ? lines.parallel() : lines;
+    }
+
+    private Stream<CharSequence> mappedLines() {
+        return parallel ? mapped.parallelLines() : mapped.lines();
+    }
+
+    private static String firstField(CharSequence line) {
+        int comma = 0;
+        while (line.charAt(comma) != ',') comma++;
+        return line.subSequence(0, comma).toString();
+    }
+
+    @Benchmark
+    public long countFilesLines() throws IOException {
+        try (Stream<String> lines = filesLines()) {
+            return lines.count();
+        }
+    }
+
+    @Benchmark
+    public long countMapped() {
+        return mappedLines().count();
+    }
+
+    @Benchmark
+    public long filterFilesLines() throws IOException {
+        try (Stream<String> lines = filesLines()) {
+            return lines.filter(line -> line.charAt(0) == 'g').count();
+        }
+    }
+
+    @Benchmark
+    public long filterMapped() {
+        return mappedLines().filter(line -> line.charAt(0) == 'g').count();
+    }
+
+    @Benchmark
+    public Map<String, Long> groupFilesLines() throws IOException {
+        try (Stream<String> lines = filesLines()) {
+            return lines.collect(Collectors.groupingBy(MappedLinesBenchmark::firstField, Collectors.counting()));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Long> groupMapped() {
+        return mappedLines().collect(Collectors.groupingBy(MappedLinesBenchmark::firstField, Collectors.counting()));
+    }
+}
@@ -0,0 +1,69 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cost of PipelineMetrics: a plain pipeline, the same pipeline built against disabled metrics
+// (should be indistinguishable from plain) and against enabled metrics.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineMetricsBenchmark {
+
+    @Param({ "100000" })
+    int size;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    List<String> words;
+    PipelineMetrics disabled = PipelineMetrics.disabled();
+    PipelineMetrics enabled = PipelineMetrics.enabled("benchmark");
+
+    @Setup
+    public void setUp() {
+        String[] array = new String[size];
+        Arrays.setAll(array, i -> (i % 3 == 0 ? "grizzly " : "brown bear ") + i);
+        words = List.of(array);
+    }
+
+    @Benchmark
+    public long plain() {
+        return (parallel ? words.parallelStream() : words.stream())
+                .filter(u -> u.startsWith("g"))
+                .map(String::length)
+                .count();
+    }
+
+    @Benchmark
+    public long metricsDisabled() {
+        return run(disabled);
+    }
+
+    @Benchmark
+    public long metricsEnabled() {
+        return run(enabled);
+    }
+
+    private long run(PipelineMetrics metrics) {
+        return metrics.tap("source", parallel ? words.parallelStream() : words.stream())
+                .filter(metrics.filter("startsWithG", u -> u.startsWith("g")))
+                .map(metrics.map("length", String::length))
+                .count();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PipelineMetricsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Each pair builds and then reads the same data through a boxed JDK collection and its primitive
+// counterpart: List<Integer> / IntArrayList, Set<Integer> / IntHashSet,
+// Map<String, Integer> counting / ObjectIntHashMap, Map<Long, Long> / LongLongHashMap.
+// footprintBytes is the heap the last built collection kept alive, measured after the iteration
+// with a full GC on each side.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx3g" })
+public class PrimitiveCollectionsBenchmark {
+
+    @Param({ "1000000", "10000000" })
+    int size;
+
+    String[] words; // size / 10 distinct keys
+
+    @Setup
+    public void setUp() {
+        words = IntStream.range(0, size / 10).mapToObj(i -> "word" + i).toArray(String[]::new);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class FootprintCounters {
+        public long footprintBytes;
+        Object retained;
+
+        @TearDown(Level.Iteration)
+        public void measure() {
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            System.gc();
+            long with = memory.getHeapMemoryUsage().getUsed();
+            retained = null;
+            System.gc();
+            footprintBytes = Math.max(0, with - memory.getHeapMemoryUsage().getUsed());
+        }
+    }
+
+    private int value(int i) {
+        return (int) (i * 7919L % size);
+    }
+
+    @Benchmark
+    public long boxedList(FootprintCounters counters) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < size; i++) list.add(value(i));
+        counters.retained = list;
+        return list.stream().reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public long intArrayList(FootprintCounters counters) {
+        IntArrayList list = new IntArrayList();
+        for (int i = 0; i < size; i++) list.add(value(i));
+        counters.retained = list;
+        return list.stream().asLongStream().sum();
+    }
+
+    @Benchmark
+    public int boxedSet(FootprintCounters counters) {
+        Set<Integer> set = new HashSet<>();
+        for (int i = 0; i < size; i++) set.add(value(i));
+        counters.retained = set;
+        int hits = 0;
+        for (int i = 0; i < size; i++) if (set.contains(i * 2)) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    public int intHashSet(FootprintCounters counters) {
+        IntHashSet set = new IntHashSet();
+        for (int i = 0; i < size; i++) set.add(value(i));
+        counters.retained = set;
+        int hits = 0;
+        for (int i = 0; i < size; i++) if (set.contains(i * 2)) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    public int boxedCounting(FootprintCounters counters) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < size; i++) counts.merge(words[value(i) % words.length], 1, Integer::sum);
+        counters.retained = counts;
+        return counts.values().stream().collect(Collectors.summingInt(Integer::intValue));
+    }
+
+    @Benchmark
+    public int objectIntCounting(FootprintCounters counters) {
+        ObjectIntHashMap<String> counts = new ObjectIntHashMap<>();
+        for (int i = 0; i < size; i++) counts.addTo(words[value(i) % words.length], 1);
+        counters.retained = counts;
+        return counts.values().sum();
+    }
+
+    @Benchmark
+    public long boxedLongLong(FootprintCounters counters) {
+        Map<Long, Long> map = new HashMap<>();
+        for (int i = 0; i < size; i++) map.put(i * 1_000_003L, (long) i);
+        counters.retained = map;
+        long sum = 0;
+        for (int i = 0; i < size; i++) sum += map.getOrDefault(i * 1_000_003L, 0L);
+        return sum;
+    }
+
+    @Benchmark
+    public long longLongHashMap(FootprintCounters counters) {
+        LongLongHashMap map = new LongLongHashMap();
+        for (int i = 0; i < size; i++) map.put(i * 1_000_003L, i);
+        counters.retained = map;
+        long sum = 0;
+        for (int i = 0; i < size; i++) sum += map.getOrDefault(i * 1_000_003L, 0);
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PrimitiveCollectionsBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Stream.generate(Math::random) from CreateInfiniteStream against SplittableRandomStreams.
+// Each parallel pipeline runs inside a dedicated ForkJoinPool so "threads" sets the parallelism.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomStreamBenchmark {
+
+    @Param({ "1", "2", "4", "8" })
+    int threads;
+
+    @Param({ "1000000" })
+    long size;
+
+    ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double mathRandomSequential() {
+        return Stream.generate(Math::random).limit(size).mapToDouble(d -> d).sum();
+    }
+
+    @Benchmark
+    public double mathRandomParallel() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> Stream.generate(Math::random).parallel().limit(size).mapToDouble(d -> d).sum()).get();
+    }
+
+    @Benchmark
+    public double splittableSequential() {
+        return SplittableRandomStreams.doubles(42, size).sum();
+    }
+
+    @Benchmark
+    public double splittableParallel() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> SplittableRandomStreams.doubles(42, size).parallel().sum()).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RandomStreamBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Both TreeSet collection styles of CommonStreamOperations against SortedSetCollectors.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedSetCollectorBenchmark {
+
+    @Param({ "10000", "1000000" })
+    int size;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    List<String> words;
+
+    @Setup
+    public void setUp() {
+        words = SplittableRandomStreams.longs(42, size)
+                .mapToObj(n -> Long.toString(n & 0xffffffL, 36))
+                .collect(Collectors.toList());
+    }
+
+    private Stream<String> stream() {
+        return parallel ? words.parallelStream() : words.stream();
+    }
+
+    @Benchmark
+    public Set<String> treeSetAddAll() {
+        return stream().collect(TreeSet::new, TreeSet::add, TreeSet::addAll);
+    }
+
+    @Benchmark
+    public Set<String> toCollectionTreeSet() {
+        return stream().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Benchmark
+    public Set<String> sortedMergeTreeSet() {
+        return stream().collect(SortedSetCollectors.toTreeSet());
+    }
+
+    @Benchmark
+    public Set<String> sortedArraySet() {
+        return stream().collect(SortedSetCollectors.toSortedArraySet());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SortedSetCollectorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
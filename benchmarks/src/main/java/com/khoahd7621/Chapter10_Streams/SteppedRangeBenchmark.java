@@ -0,0 +1,54 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// The Stream.iterate sequences of CreateInfiniteStream and CommonIntermediateOperations
+// against IntSteppedRange. iterate cannot split, so its parallel variants gain nothing.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SteppedRangeBenchmark {
+
+    @Param({ "1000", "1000000" })
+    int bound;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    // Stream.iterate(1, n -> n + 2).limit(...)
+    @Benchmark
+    public long iterateLimit() {
+        Stream<Integer> odd = Stream.iterate(1, n -> n + 2).limit(bound / 2);
+        return (parallel ? odd.parallel() : odd).mapToLong(n -> n * (long) n).sum();
+    }
+
+    // Stream.iterate(1, n -> n < bound, n -> n + 2)
+    @Benchmark
+    public long iteratePredicate() {
+        Stream<Integer> odd = Stream.iterate(1, n -> n < bound, n -> n + 2);
+        return (parallel ? odd.parallel() : odd).mapToLong(n -> n * (long) n).sum();
+    }
+
+    @Benchmark
+    public long steppedRange() {
+        var odd = IntSteppedRange.of(1, 2, bound);
+        return (parallel ? odd.parallelStream() : odd.stream()).mapToLong(n -> n * (long) n).sum();
+    }
+
+    // Stream.iterate(1, n -> n + 1).skip(...).limit(2) against the arithmetic skip/limit
+    @Benchmark
+    public long iterateSkip() {
+        return Stream.iterate(1, n -> n + 1).skip(bound).limit(2).mapToLong(n -> n).sum();
+    }
+
+    @Benchmark
+    public long steppedRangeSkip() {
+        return IntSteppedRange.from(1, 1).skip(bound).limit(2).stream().asLongStream().sum();
+    }
+}
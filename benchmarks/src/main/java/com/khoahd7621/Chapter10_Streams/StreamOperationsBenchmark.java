@@ -0,0 +1,103 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// The patterns demonstrated in UsingStreams (CommonStreamOperations and CommonIntermediateOperations),
+// each run sequentially and in parallel over generated words.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamOperationsBenchmark {
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    List<String> words;
+    List<Integer> numbers;
+    List<List<String>> groups;
+
+    @Setup
+    public void setUp() {
+        words = SplittableRandomStreams.longs(42, size)
+                .mapToObj(n -> Long.toString(n & 0xfffffL, 36))
+                .collect(Collectors.toList());
+        numbers = SplittableRandomStreams.longs(7, size)
+                .mapToObj(n -> (int) (n & 3) + 1)
+                .collect(Collectors.toList());
+        groups = new ArrayList<>();
+        for (int i = 0; i < size; i += 3) groups.add(words.subList(i, Math.min(i + 3, size)));
+    }
+
+    private <T> Stream<T> stream(List<T> list) {
+        return parallel ? list.parallelStream() : list.stream();
+    }
+
+    // Type 1: T reduce(T identity, BinaryOperator<T> accumulator)
+    @Benchmark
+    public Integer reduceIdentity() {
+        return stream(numbers).reduce(0, Integer::sum);
+    }
+
+    // Type 2: Optional<T> reduce(BinaryOperator<T> accumulator)
+    @Benchmark
+    public Optional<Integer> reduceOptional() {
+        return stream(numbers).reduce((a, b) -> a * b);
+    }
+
+    // Type 3: <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner)
+    @Benchmark
+    public Integer reduceCombiner() {
+        return stream(words).reduce(0, (i, z) -> i + z.length(), Integer::sum);
+    }
+
+    @Benchmark
+    public StringBuilder collectStringBuilder() {
+        return stream(words).collect(StringBuilder::new, StringBuilder::append, StringBuilder::append);
+    }
+
+    @Benchmark
+    public TreeSet<String> collectTreeSet() {
+        return stream(words).collect(TreeSet::new, TreeSet::add, TreeSet::addAll);
+    }
+
+    @Benchmark
+    public Set<String> collectToSet() {
+        return stream(words).collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public long flatMap() {
+        return stream(groups).flatMap(List::stream).count();
+    }
+
+    @Benchmark
+    public List<String> sorted() {
+        return stream(words).sorted().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> sortedReverse() {
+        return stream(words).sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long distinct() {
+        return stream(words).distinct().count();
+    }
+}
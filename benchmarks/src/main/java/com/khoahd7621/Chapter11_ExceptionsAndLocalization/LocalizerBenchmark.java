@@ -0,0 +1,88 @@
+package com.khoahd7621.Chapter11_ExceptionsAndLocalization;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// One "request" formats a number, formats a date-time and reads two messages for one of four locales,
+// as reading/11_Exceptions_And_Localization does it (a new NumberFormat, DateTimeFormatter and
+// ResourceBundle lookup per call) and through a shared Localizer.
+// The requests run in a dedicated ForkJoinPool so "threads" sets the parallelism.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalizerBenchmark {
+
+    private static final int REQUESTS = 10_000;
+    private static final String ZOO = LocalizerBenchmark.class.getPackageName() + ".Zoo";
+    private static final String PATTERN = "MMMM dd, yyyy 'at' hh:mm";
+    private static final Locale[] LOCALES = { Locale.US, Locale.FRANCE, Locale.CANADA, Locale.CANADA_FRENCH };
+    private static final LocalDateTime WHEN = LocalDateTime.of(2022, 10, 20, 11, 12, 34);
+
+    @Param({ "1", "2", "4", "8" })
+    int threads;
+
+    ForkJoinPool pool;
+    Localizer localizer;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        localizer = Localizer.builder().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static int perCall(int request) {
+        Locale locale = LOCALES[request & 3];
+        String number = NumberFormat.getInstance(locale).format(request * 1.5);
+        String date = WHEN.format(DateTimeFormatter.ofPattern(PATTERN, locale));
+        ResourceBundle rb = ResourceBundle.getBundle(ZOO, locale, Localizer.class.getClassLoader());
+        String text = rb.getString("hello") + ", " + rb.getString("open");
+        return number.length() + date.length() + text.length();
+    }
+
+    private int cached(int request) {
+        Locale locale = LOCALES[request & 3];
+        String number = localizer.numbers(Localizer.NumberStyle.NUMBER, locale).format(request * 1.5);
+        String date = WHEN.format(localizer.dates(PATTERN, locale));
+        Localizer.Messages messages = localizer.messages(ZOO, locale);
+        String text = messages.get("hello") + ", " + messages.get("open");
+        return number.length() + date.length() + text.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public long createPerCall() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> IntStream.range(0, REQUESTS).parallel().mapToLong(LocalizerBenchmark::perCall).sum()).get();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public long localizer() throws ExecutionException, InterruptedException {
+        return pool.submit(() -> IntStream.range(0, REQUESTS).parallel().mapToLong(this::cached).sum()).get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LocalizerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
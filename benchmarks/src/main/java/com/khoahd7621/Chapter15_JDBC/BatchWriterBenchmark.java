@@ -0,0 +1,108 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Inserting rows into the names table of a file-based HyperSQL database:
+// one executeUpdate per row with autocommit (as in reading/15_JDBC), the same with a new
+// Connection per row, and a BatchWriter on a ConnectionPool at two batch sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchWriterBenchmark {
+
+    private static final String INSERT = "INSERT INTO names VALUES(?, ?, ?)";
+
+    @Param({ "10000" })
+    int rows;
+
+    @Param({ "100", "1000" })
+    int batchSize;
+
+    Path directory;
+    String url;
+    ConnectionPool pool;
+    Connection keepAlive;
+    int nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("batch-writer-benchmark");
+        url = "jdbc:hsqldb:file:" + directory.resolve("zoo");
+        pool = ConnectionPool.builder(url).maxSize(4).build();
+        keepAlive = pool.getConnection();
+        ZooDatabase.create(keepAlive);
+        nextId = 100;
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyNames() throws SQLException {
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.executeUpdate("DELETE FROM names WHERE id >= 100");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+        keepAlive.close();
+        pool.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) Files.deleteIfExists(file);
+        }
+    }
+
+    private static void bind(PreparedStatement ps, int id) throws SQLException {
+        ps.setInt(1, id);
+        ps.setInt(2, id % 2 + 1);
+        ps.setString(3, "Animal " + id);
+    }
+
+    @Benchmark
+    public void perRowAutocommit() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement ps = conn.prepareStatement(INSERT)) {
+            for (int i = 0; i < rows; i++) {
+                bind(ps, nextId++);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    public void perRowNewConnection() throws SQLException {
+        for (int i = 0; i < rows; i++) {
+            try (Connection conn = DriverManager.getConnection(url);
+                 PreparedStatement ps = conn.prepareStatement(INSERT)) {
+                bind(ps, nextId++);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    @Benchmark
+    public long batchWriter() throws SQLException {
+        try (BatchWriter<Integer> writer = BatchWriter.<Integer>builder(pool, INSERT, BatchWriterBenchmark::bind)
+                .batchSize(batchSize).commitEvery(10).build()) {
+            for (int i = 0; i < rows; i++) writer.write(nextId++);
+            writer.flush();
+            return writer.rowsWritten();
+        }
+    }
+}
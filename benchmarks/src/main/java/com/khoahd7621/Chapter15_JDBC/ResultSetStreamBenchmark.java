@@ -0,0 +1,131 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Reads 1M to 4M rows from a CACHED table of a file-based HyperSQL database, with results over
+// 10,000 rows kept on disk by the database, in a 256 MB heap:
+// the while (rs.next()) loop of reading/15_JDBC collecting into a List, and ResultSetStream summing
+// the rows as they arrive, once looking columns up by name per row and once by index.
+// peakHeapBytes should stay flat across sizes for the streams and grow with rows for the list.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx256m" })
+public class ResultSetStreamBenchmark {
+
+    private static final String SELECT = "SELECT id, sensor, reading FROM readings";
+
+    record Reading(long id, String sensor, double reading) {
+    }
+
+    @Param({ "1000000", "4000000" })
+    int rows;
+
+    @Param({ "1000" })
+    int fetchSize;
+
+    Path directory;
+    ConnectionPool pool;
+    Connection keepAlive;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("result-set-stream-benchmark");
+        pool = ConnectionPool.builder("jdbc:hsqldb:file:" + directory.resolve("readings")).maxSize(2).build();
+        keepAlive = pool.getConnection();
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("SET DATABASE DEFAULT RESULT MEMORY ROWS 10000");
+            stmt.execute("CREATE CACHED TABLE readings (id BIGINT PRIMARY KEY, sensor VARCHAR(32), reading DOUBLE)");
+        }
+        try (BatchWriter<Integer> writer = BatchWriter.<Integer>builder(pool, "INSERT INTO readings VALUES(?, ?, ?)",
+                (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setString(2, "sensor-" + id % 64);
+                    ps.setDouble(3, id * 0.5);
+                }).batchSize(5_000).commitEvery(20).build()) {
+            for (int id = 0; id < rows; id++) writer.write(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+        keepAlive.close();
+        pool.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) Files.deleteIfExists(file);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class HeapCounters {
+        public long peakHeapBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+                if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+
+        @TearDown(Level.Iteration)
+        public void record() {
+            peakHeapBytes = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+                if (pool.getType() == MemoryType.HEAP) peakHeapBytes += pool.getPeakUsage().getUsed();
+        }
+    }
+
+    @Benchmark
+    public double loopIntoList(HeapCounters counters) throws SQLException {
+        List<Reading> readings = new ArrayList<>();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SELECT);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next())
+                readings.add(new Reading(rs.getLong("id"), rs.getString("sensor"), rs.getDouble("reading")));
+        }
+        return readings.stream().mapToDouble(Reading::reading).sum();
+    }
+
+    @Benchmark
+    public double streamByLabel(HeapCounters counters) throws SQLException {
+        try (Stream<Reading> readings = ResultSetStream.query(pool, SELECT).fetchSize(fetchSize)
+                .map(rs -> new Reading(rs.getLong("id"), rs.getString("sensor"), rs.getDouble("reading")))) {
+            return readings.mapToDouble(Reading::reading).sum();
+        }
+    }
+
+    @Benchmark
+    public double streamByIndex(HeapCounters counters) throws SQLException {
+        try (Stream<Reading> readings = ResultSetStream.query(pool, SELECT).fetchSize(fetchSize)
+                .mapColumns(columns -> {
+                    int id = columns.index("id"), sensor = columns.index("sensor"), reading = columns.index("reading");
+                    return rs -> new Reading(rs.getLong(id), rs.getString(sensor), rs.getDouble(reading));
+                })) {
+            return readings.mapToDouble(Reading::reading).sum();
+        }
+    }
+}
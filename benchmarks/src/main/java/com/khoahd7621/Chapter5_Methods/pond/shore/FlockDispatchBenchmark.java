@@ -0,0 +1,108 @@
+package com.khoahd7621.Chapter5_Methods.pond.shore;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// floatInWater() over a shuffled mix of 1, 2 or 4 Bird subclasses (mono-, bi- and megamorphic),
+// called from one loop over a Bird[] against a TypePartitioned run with one loop per class.
+// The subclasses add to a field instead of printing, so the score is the dispatch itself.
+// Each kinds value runs in its own fork, so type profiles do not leak between them.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlockDispatchBenchmark {
+
+    static class Duck extends Bird {
+        long distance;
+
+        @Override
+        protected void floatInWater() {
+            distance += 1;
+        }
+    }
+
+    static class Swan extends Bird {
+        long distance;
+
+        @Override
+        protected void floatInWater() {
+            distance += 2;
+        }
+    }
+
+    static class Heron extends Bird {
+        long distance;
+
+        @Override
+        protected void floatInWater() {
+            distance += 3;
+        }
+    }
+
+    static class Coot extends Bird {
+        long distance;
+
+        @Override
+        protected void floatInWater() {
+            distance += 4;
+        }
+    }
+
+    @Param({ "1", "2", "4" })
+    int kinds;
+
+    @Param({ "100000" })
+    int size;
+
+    Bird[] mixed;
+    TypePartitioned<Bird> partitioned;
+
+    final TypePartitioned.Dispatcher<Bird> dispatcher = new TypePartitioned.Dispatcher<Bird>()
+            .on(Duck.class, group -> {
+                for (int i = 0; i < group.size(); i++) group.get(i).floatInWater();
+            })
+            .on(Swan.class, group -> {
+                for (int i = 0; i < group.size(); i++) group.get(i).floatInWater();
+            })
+            .on(Heron.class, group -> {
+                for (int i = 0; i < group.size(); i++) group.get(i).floatInWater();
+            })
+            .on(Coot.class, group -> {
+                for (int i = 0; i < group.size(); i++) group.get(i).floatInWater();
+            });
+
+    @Setup
+    public void setUp() {
+        List<Bird> birds = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            birds.add(switch (i % kinds) {
+                case 0 -> new Duck();
+                case 1 -> new Swan();
+                case 2 -> new Heron();
+                default -> new Coot();
+            });
+        }
+        Collections.shuffle(birds, new Random(42));
+        mixed = birds.toArray(Bird[]::new);
+        partitioned = new TypePartitioned<>();
+        partitioned.addAll(birds);
+    }
+
+    @Benchmark
+    public void virtualLoop() {
+        for (Bird bird : mixed) bird.floatInWater();
+    }
+
+    @Benchmark
+    public void batched() {
+        dispatcher.run(partitioned);
+    }
+}
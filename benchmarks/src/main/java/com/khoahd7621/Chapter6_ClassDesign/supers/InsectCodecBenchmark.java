@@ -0,0 +1,114 @@
+package com.khoahd7621.Chapter6_ClassDesign.supers;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Round trip of a batch of Insects and Bettles: InsectCodec through one reused ByteBuffer
+// against ObjectOutputStream/ObjectInputStream. bytesPerRecord reports the encoded size.
+// Insect and Bettle are not Serializable, so the serialization side runs on mirror DTOs with the same fields.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsectCodecBenchmark {
+
+    @Param({ "1000" })
+    int batch;
+
+    Insect[] insects;
+    SerializableInsect[] mirrors;
+    ByteBuffer buffer;
+
+    static class SerializableInsect implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        protected int numberOfLegs;
+        String label;
+
+        SerializableInsect(Insect insect) {
+            numberOfLegs = insect.numberOfLegs;
+            label = insect.label;
+        }
+    }
+
+    // Hides numberOfLegs the way Bettle does, so both copies are written
+    static class SerializableBettle extends SerializableInsect {
+        private static final long serialVersionUID = 1L;
+
+        protected int numberOfLegs;
+        short age;
+
+        SerializableBettle(Bettle bettle) {
+            super(bettle);
+            numberOfLegs = bettle.numberOfLegs;
+            age = bettle.age;
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Size {
+        public long bytesPerRecord;
+    }
+
+    @Setup
+    public void setUp() {
+        insects = new Insect[batch];
+        mirrors = new SerializableInsect[batch];
+        int size = 0;
+        for (int i = 0; i < batch; i++) {
+            if (i % 2 == 0) {
+                Bettle bettle = new Bettle();
+                bettle.age = (short) (i % 7);
+                bettle.label = "beetle-" + i;
+                insects[i] = bettle;
+                mirrors[i] = new SerializableBettle(bettle);
+            } else {
+                insects[i] = new Insect();
+                mirrors[i] = new SerializableInsect(insects[i]);
+            }
+            size += InsectCodec.encodedSize(insects[i]);
+        }
+        buffer = ByteBuffer.allocate(size);
+    }
+
+    @Benchmark
+    public int codecRoundTrip(Size size) {
+        buffer.clear();
+        for (Insect insect : insects) InsectCodec.write(insect, buffer);
+        size.bytesPerRecord = buffer.position() / batch;
+        buffer.flip();
+        int legs = 0;
+        for (int i = 0; i < batch; i++) legs += InsectCodec.read(buffer).numberOfLegs;
+        return legs;
+    }
+
+    // One stream per record, so back references between records do not shrink the output
+    @Benchmark
+    public int serializationRoundTrip(Size size) throws IOException, ClassNotFoundException {
+        int legs = 0;
+        long bytes = 0;
+        for (SerializableInsect insect : mirrors) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(out)) {
+                objects.writeObject(insect);
+            }
+            bytes += out.size();
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+                legs += ((SerializableInsect) in.readObject()).numberOfLegs;
+            }
+        }
+        size.bytesPerRecord = bytes / batch;
+        return legs;
+    }
+}
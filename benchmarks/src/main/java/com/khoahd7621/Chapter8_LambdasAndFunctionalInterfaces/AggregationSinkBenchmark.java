@@ -0,0 +1,81 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+// Counting keys from a parallel stream through a BiConsumer<String, Long>, as in ConsumerAndBiComsumerFIs,
+// with 1 to 8 worker threads (a dedicated ForkJoinPool per run) and few or many distinct keys.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationSinkBenchmark {
+
+    @Param({ "1", "2", "4", "8" })
+    int threads;
+
+    @Param({ "16", "100000" })
+    int distinctKeys;
+
+    @Param({ "1000000" })
+    int events;
+
+    ForkJoinPool pool;
+    String[] keys;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        keys = new String[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) keys[i] = "key-" + i;
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private void feed(BiConsumer<String, Long> sink) throws ExecutionException, InterruptedException {
+        pool.submit(() -> IntStream.range(0, events).parallel()
+                .forEach(i -> sink.accept(keys[(i * 31) % distinctKeys], 1L))).get();
+    }
+
+    @Benchmark
+    public Map<String, Long> synchronizedMap() throws ExecutionException, InterruptedException {
+        Map<String, Long> map = Collections.synchronizedMap(new HashMap<>());
+        feed((k, v) -> map.merge(k, v, Long::sum));
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Long> concurrentHashMapMerge() throws ExecutionException, InterruptedException {
+        Map<String, Long> map = new ConcurrentHashMap<>();
+        feed((k, v) -> map.merge(k, v, Long::sum));
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Long> stripedAggregator() throws ExecutionException, InterruptedException {
+        StripedAggregator<String, Long> sink = StripedAggregator.merging(Long::sum);
+        feed(sink);
+        return sink.snapshot();
+    }
+
+    @Benchmark
+    public Map<String, Long> longAdderMap() throws ExecutionException, InterruptedException {
+        var sink = new LongAdderMap<String>();
+        feed(sink::add);
+        return sink.snapshot();
+    }
+}
@@ -0,0 +1,64 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+// forEach(println) from 1 to 8 producer threads (a dedicated ForkJoinPool per run).
+// The System.out stand-in is a PrintStream built the same way (buffered, autoflush) over a null stream,
+// and the AsyncPrinter writes to a channel over the same null stream, so the scores are the cost of
+// getting lines out of the pipeline rather than of the terminal.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsyncPrinterBenchmark {
+
+    @Param({ "1", "2", "4", "8" })
+    int threads;
+
+    @Param({ "100000" })
+    int lines;
+
+    ForkJoinPool pool;
+    PrintStream systemOutLike;
+    AsyncPrinter printer;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(threads);
+        systemOutLike = new PrintStream(new BufferedOutputStream(OutputStream.nullOutputStream(), 8192), true);
+        printer = AsyncPrinter.builder(Channels.newChannel(OutputStream.nullOutputStream())).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        printer.close();
+        pool.shutdown();
+    }
+
+    private void print(Consumer<Object> out) throws ExecutionException, InterruptedException {
+        pool.submit(() -> IntStream.range(0, lines).parallel().mapToObj(i -> "line " + i).forEach(out)).get();
+    }
+
+    @Benchmark
+    public void systemOut() throws ExecutionException, InterruptedException {
+        print(systemOutLike::println);
+    }
+
+    @Benchmark
+    public void asyncPrinter() throws ExecutionException, InterruptedException {
+        print(printer);
+        printer.flush();
+    }
+}
@@ -0,0 +1,69 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Rounds 4M sensor readings per invocation. Scores are operations per nanosecond with one
+// operation per element, so they read directly as elements per nanosecond.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BulkRoundingBenchmark.SIZE)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkRoundingBenchmark {
+
+    static final int SIZE = 1 << 22;
+
+    final MethodReferences.StaticMethod.Converter converter = Math::round;
+
+    double[] readings;
+    long[] rounded;
+    DoubleBuffer readingBuffer;
+    LongBuffer roundedBuffer;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        readings = random.doubles(SIZE, -1e6, 1e6).toArray();
+        rounded = new long[SIZE];
+        readingBuffer = DoubleBuffer.wrap(readings);
+        roundedBuffer = LongBuffer.wrap(rounded);
+    }
+
+    @Benchmark
+    public long[] scalarConverter() {
+        for (int i = 0; i < SIZE; i++) rounded[i] = converter.round(readings[i]);
+        return rounded;
+    }
+
+    @Benchmark
+    public long[] bulk() {
+        return BulkRounding.round(readings, 0, SIZE, rounded, 0);
+    }
+
+    @Benchmark
+    public LongBuffer buffers() {
+        readingBuffer.clear();
+        roundedBuffer.clear();
+        BulkRounding.round(readingBuffer, roundedBuffer);
+        return roundedBuffer;
+    }
+
+    @Benchmark
+    public long chunked() {
+        long[] checksum = new long[1];
+        BulkRounding.roundInChunks(readings, 4096, (chunk, count, offset) -> checksum[0] += chunk[count - 1]);
+        return checksum[0];
+    }
+
+    @Benchmark
+    public long[] parallel() {
+        return BulkRounding.parallelRound(readings, rounded);
+    }
+}
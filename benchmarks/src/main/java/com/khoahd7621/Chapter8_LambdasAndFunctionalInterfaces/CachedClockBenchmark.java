@@ -0,0 +1,73 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// One timestamp per call, the way SupplierFI gets its dates, from the system clock against a
+// CachedClock ticking every millisecond. Run with more threads (-t) to see reads stay flat.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CachedClockBenchmark {
+
+    final Supplier<LocalDate> localDateNow = LocalDate::now;
+    final Supplier<Instant> instantNow = Instant::now;
+    final LongSupplier currentTimeMillis = System::currentTimeMillis;
+
+    CachedClock clock;
+    Supplier<LocalDate> cachedDates;
+    Supplier<Instant> cachedInstants;
+    LongSupplier cachedMillis;
+
+    @Setup
+    public void setUp() {
+        clock = CachedClock.ticking(Duration.ofMillis(1));
+        cachedDates = clock.dates();
+        cachedInstants = clock.instants();
+        cachedMillis = clock.epochMillis();
+    }
+
+    @TearDown
+    public void tearDown() {
+        clock.close();
+    }
+
+    @Benchmark
+    public LocalDate localDateNow() {
+        return localDateNow.get();
+    }
+
+    @Benchmark
+    public LocalDate cachedDate() {
+        return cachedDates.get();
+    }
+
+    @Benchmark
+    public Instant instantNow() {
+        return instantNow.get();
+    }
+
+    @Benchmark
+    public Instant cachedInstant() {
+        return cachedInstants.get();
+    }
+
+    @Benchmark
+    public long currentTimeMillis() {
+        return currentTimeMillis.getAsLong();
+    }
+
+    @Benchmark
+    public long cachedMillis() {
+        return cachedMillis.getAsLong();
+    }
+}
@@ -0,0 +1,88 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+// Chains of depth 2 to 32 built with Function.compose/andThen (as in ConvenienceMethods),
+// IntUnaryOperator.andThen, and FusedComposition.FusedInt, applied over an int array.
+// Links cycle through four lambda shapes so compose/andThen see several targets, as real chains do.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompositionBenchmark {
+
+    @Param({ "2", "4", "8", "16", "32" })
+    int depth;
+
+    @Param({ "1000" })
+    int size;
+
+    int[] values;
+    int[] results;
+    Function<Integer, Integer> composed;
+    Function<Integer, Integer> andThen;
+    IntUnaryOperator primitiveAndThen;
+    FusedComposition.FusedInt fused;
+
+    @Setup
+    public void setUp() {
+        values = new int[size];
+        for (int i = 0; i < size; i++) values[i] = i;
+        results = new int[size];
+
+        List<IntUnaryOperator> links = new ArrayList<>();
+        for (int i = 0; i < depth; i++) {
+            int k = i + 1;
+            switch (i % 4) {
+                case 0 -> links.add(x -> x + k);
+                case 1 -> links.add(x -> x * 3);
+                case 2 -> links.add(x -> x ^ k);
+                default -> links.add(x -> x - (x >> 2));
+            }
+        }
+        Function<Integer, Integer> c = Function.identity();
+        Function<Integer, Integer> a = Function.identity();
+        IntUnaryOperator p = IntUnaryOperator.identity();
+        for (IntUnaryOperator link : links) {
+            Function<Integer, Integer> boxed = x -> link.applyAsInt(x);
+            c = boxed.compose(c);
+            a = a.andThen(boxed);
+            p = p.andThen(link);
+        }
+        composed = c;
+        andThen = a;
+        primitiveAndThen = p;
+        fused = FusedComposition.FusedInt.of(links);
+    }
+
+    @Benchmark
+    public int[] functionCompose() {
+        for (int i = 0; i < size; i++) results[i] = composed.apply(values[i]);
+        return results;
+    }
+
+    @Benchmark
+    public int[] functionAndThen() {
+        for (int i = 0; i < size; i++) results[i] = andThen.apply(values[i]);
+        return results;
+    }
+
+    @Benchmark
+    public int[] intUnaryOperatorAndThen() {
+        for (int i = 0; i < size; i++) results[i] = primitiveAndThen.applyAsInt(values[i]);
+        return results;
+    }
+
+    @Benchmark
+    public int[] fusedApplyAll() {
+        return fused.applyAll(values, results);
+    }
+}
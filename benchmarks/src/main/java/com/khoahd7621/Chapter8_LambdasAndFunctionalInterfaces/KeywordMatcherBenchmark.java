@@ -0,0 +1,61 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Log lines tested against "starts with ERROR and contains any of N keywords and not <keyword>",
+// once as composed s -> s.contains(...) predicates and once compiled into a KeywordMatcher.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordMatcherBenchmark {
+
+    @Param({ "2", "20", "200" })
+    int keywords;
+
+    String[] lines;
+    Predicate<String> naive;
+    Predicate<String> compiled;
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(42);
+        String[] words = new String[keywords];
+        for (int i = 0; i < keywords; i++) words[i] = "kw" + Integer.toString(random.nextInt(1 << 20), 36);
+        KeywordRule rule = KeywordRule.startsWith("ERROR")
+                .and(KeywordRule.containsAny(words))
+                .and(KeywordRule.contains("brown egg").negate());
+        naive = rule.naive();
+        compiled = rule.compile();
+
+        lines = new String[1024];
+        for (int i = 0; i < lines.length; i++) {
+            var line = new StringBuilder(i % 2 == 0 ? "ERROR " : "INFO ");
+            while (line.length() < 200) line.append(Integer.toString(random.nextInt(1 << 30), 36)).append(' ');
+            if (i % 8 == 0) line.append(words[random.nextInt(keywords)]);
+            lines[i] = line.toString();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public int naivePredicates() {
+        int matches = 0;
+        for (String line : lines) if (naive.test(line)) matches++;
+        return matches;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public int compiledMatcher() {
+        int matches = 0;
+        for (String line : lines) if (compiled.test(line)) matches++;
+        return matches;
+    }
+}
@@ -0,0 +1,105 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Method reference against the equivalent lambda, for the pairs used in MethodReferences
+// and BuiltinFunctionalInterfaces, applied over a list sequentially and in parallel.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodReferenceBenchmark {
+
+    @Param({ "1000", "100000" })
+    int size;
+
+    @Param({ "false", "true" })
+    boolean parallel;
+
+    List<String> words;
+
+    final Function<String, Integer> lengthRef = String::length;
+    final Function<String, Integer> lengthLambda = x -> x.length();
+    final UnaryOperator<String> upperRef = String::toUpperCase;
+    final UnaryOperator<String> upperLambda = x -> x.toUpperCase();
+    final Predicate<String> emptyRef = String::isEmpty;
+    final Predicate<String> emptyLambda = x -> x.isEmpty();
+    final BiPredicate<String, String> startsWithRef = String::startsWith;
+    final BiPredicate<String, String> startsWithLambda = (string, prefix) -> string.startsWith(prefix);
+    final MethodReferences.StaticMethod.Converter roundRef = Math::round;
+    final MethodReferences.StaticMethod.Converter roundLambda = x -> Math.round(x);
+
+    @Setup
+    public void setUp() {
+        words = IntStream.range(0, size)
+                .mapToObj(i -> (i % 10 == 0 ? "" : "chick") + i)
+                .collect(Collectors.toList());
+    }
+
+    private Stream<String> stream() {
+        return parallel ? words.parallelStream() : words.stream();
+    }
+
+    @Benchmark
+    public int functionMethodReference() {
+        return stream().map(lengthRef).mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    public int functionLambda() {
+        return stream().map(lengthLambda).mapToInt(Integer::intValue).sum();
+    }
+
+    // Sums the mapped lengths: count() on this SIZED stream would skip map() altogether
+    @Benchmark
+    public int unaryOperatorMethodReference() {
+        return stream().map(upperRef).mapToInt(String::length).sum();
+    }
+
+    @Benchmark
+    public int unaryOperatorLambda() {
+        return stream().map(upperLambda).mapToInt(String::length).sum();
+    }
+
+    @Benchmark
+    public long predicateMethodReference() {
+        return stream().filter(emptyRef).count();
+    }
+
+    @Benchmark
+    public long predicateLambda() {
+        return stream().filter(emptyLambda).count();
+    }
+
+    @Benchmark
+    public long biPredicateMethodReference() {
+        return stream().filter(s -> startsWithRef.test(s, "chick1")).count();
+    }
+
+    @Benchmark
+    public long biPredicateLambda() {
+        return stream().filter(s -> startsWithLambda.test(s, "chick1")).count();
+    }
+
+    @Benchmark
+    public long converterMethodReference() {
+        return stream().mapToLong(s -> roundRef.round(s.length() * 0.5)).sum();
+    }
+
+    @Benchmark
+    public long converterLambda() {
+        return stream().mapToLong(s -> roundLambda.round(s.length() * 0.5)).sum();
+    }
+}
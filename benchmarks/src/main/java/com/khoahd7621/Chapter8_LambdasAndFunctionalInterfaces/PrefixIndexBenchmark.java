@@ -0,0 +1,84 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Routing keys checked against 10 to 100 000 path prefixes: a linear String::startsWith scan
+// over all prefixes against one walk of the PrefixIndex. Half of the keys have a matching prefix.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefixIndexBenchmark {
+
+    @Param({ "10", "1000", "100000" })
+    int prefixCount;
+
+    static final int KEYS = 1024;
+
+    String[] prefixes;
+    PrefixIndex index;
+    String[] keys;
+    int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Set<String> unique = new HashSet<>();
+        while (unique.size() < prefixCount) unique.add(path(random, random.nextInt(1, 4)));
+        prefixes = unique.toArray(String[]::new);
+        index = PrefixIndex.of(unique);
+
+        keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++)
+            keys[i] = i % 2 == 0
+                    ? prefixes[random.nextInt(prefixCount)] + path(random, 2)
+                    : "/unrouted" + path(random, 3);
+    }
+
+    private static String path(SplittableRandom random, int segments) {
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < segments; i++) path.append('/').append(Long.toString(random.nextLong(1L << 20), 36));
+        return path.toString();
+    }
+
+    private String nextKey() {
+        return keys[next++ & (KEYS - 1)];
+    }
+
+    @Benchmark
+    public boolean anyLinear() {
+        String key = nextKey();
+        for (String prefix : prefixes) if (key.startsWith(prefix)) return true;
+        return false;
+    }
+
+    @Benchmark
+    public boolean anyIndex() {
+        return index.matchesAny(nextKey());
+    }
+
+    @Benchmark
+    public String longestLinear() {
+        String key = nextKey(), longest = null;
+        for (String prefix : prefixes)
+            if (key.startsWith(prefix) && (longest == null || prefix.length() > longest.length())) longest = prefix;
+        return longest;
+    }
+
+    @Benchmark
+    public String longestIndex() {
+        return index.longestMatch(nextKey()).orElse(null);
+    }
+
+    @Benchmark
+    public PrefixIndex build() {
+        return PrefixIndex.of(prefixes);
+    }
+}
@@ -0,0 +1,60 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+// Ingests a column of fresh String copies through String::new, String::intern and a StringPool,
+// for a few to a million distinct values. The GC profiler of BenchmarkRunner reports the allocation;
+// the retained heap of each variant is shown by StringPool.main.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringPoolBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    int cardinality;
+
+    @Param({ "1000000" })
+    int rows;
+
+    @Param({ "16777216" })
+    long poolBudgetBytes;
+
+    String[] incoming;
+    StringPool pool;
+
+    @Setup
+    public void setUp() {
+        incoming = new String[rows];
+        for (int i = 0; i < rows; i++) incoming[i] = "value-" + (i * 7919L % cardinality);
+        pool = new StringPool(poolBudgetBytes);
+    }
+
+    private List<String> ingest(UnaryOperator<String> copier) {
+        List<String> column = new ArrayList<>(rows);
+        for (String value : incoming) column.add(copier.apply(new String(value)));
+        return column;
+    }
+
+    @Benchmark
+    public List<String> stringNew() {
+        return ingest(String::new);
+    }
+
+    @Benchmark
+    public List<String> stringIntern() {
+        return ingest(String::intern);
+    }
+
+    @Benchmark
+    public List<String> stringPool() {
+        return ingest(pool);
+    }
+}
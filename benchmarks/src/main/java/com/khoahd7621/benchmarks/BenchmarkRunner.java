@@ -0,0 +1,36 @@
+package com.khoahd7621.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Entry point of the shaded jar:
+//   java -jar benchmarks/target/benchmarks.jar [regexp] [any JMH option]
+// Runs with the GC/allocation profiler and writes JSON results to
+// jmh-result-<timestamp>.json, so runs can be compared over time (e.g. with jmh.morethan.io).
+// Explicit -prof / -rf / -rff options on the command line win over these defaults.
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        var commandLine = new CommandLineOptions(args);
+        var options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getProfilers().isEmpty()) options.addProfiler(GCProfiler.class);
+        if (commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(commandLine.getResultFormat().get());
+        } else {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.result("jmh-result-" + timestamp + ".json");
+        }
+        new Runner(options.build()).run();
+    }
+}
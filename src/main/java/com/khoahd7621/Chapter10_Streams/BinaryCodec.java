@@ -0,0 +1,50 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Turns stream elements into bytes and back, so stages like BoundedDistinct can keep them
+// off-heap-friendly (in a byte arena) or spill them to temp files.
+// encode(decode(bytes)) must give back equal bytes, and equal elements must encode to equal bytes.
+public interface BinaryCodec<T> {
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    BinaryCodec<String> UTF_8 = new BinaryCodec<>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    BinaryCodec<Long> LONG = new BinaryCodec<>() {
+        @Override
+        public byte[] encode(Long value) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+        }
+
+        @Override
+        public Long decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+    };
+
+    BinaryCodec<Integer> INT = new BinaryCodec<>() {
+        @Override
+        public byte[] encode(Integer value) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+        }
+
+        @Override
+        public Integer decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+}
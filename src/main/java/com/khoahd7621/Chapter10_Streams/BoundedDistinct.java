@@ -0,0 +1,355 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Memory-bounded replacement for Stream.distinct().
+// distinct() remembers every element in an on-heap HashSet, which fails once the keys outgrow the heap.
+//
+// distinct(stream, codec, budget) works in passes:
+// ■ Elements are encoded to bytes and remembered in a compact open-addressing table
+//   (one long per slot holding a fingerprint and an offset into a single byte arena).
+// ■ While the table fits in the budget, unseen elements are emitted right away, in encounter order.
+// ■ Once it is full, elements the table has not seen are written to one of 16 hash-partitioned temp files.
+// ■ When the source is exhausted each file is deduplicated in turn with a fresh table,
+//   repartitioning with a new hash seed if a file is still too big.
+// Spilled elements therefore come out after the in-memory ones and are not in encounter order.
+// The table addresses its arena with int offsets, so the budget is capped at MAX_BUDGET_BYTES (about 2 GB).
+// Growing the table briefly holds the old and the new array together; that peak is what is checked against the budget.
+//
+// approximateDistinct(stream, codec, budget, expected) uses a Bloom filter instead: constant memory
+// and no temp files, but a new element is dropped if it collides with earlier ones (a false drop).
+public class BoundedDistinct {
+
+    static final int PARTITIONS = 16;
+
+    // Largest array the VM reliably allocates; also the largest budget distinct() accepts
+    static final int MAX_BUDGET_BYTES = Integer.MAX_VALUE - 8;
+
+    private BoundedDistinct() {
+    }
+
+    public static <T> Stream<T> distinct(Stream<T> source, BinaryCodec<T> codec, long memoryBudgetBytes) {
+        if (memoryBudgetBytes <= 0) throw new IllegalArgumentException("memoryBudgetBytes must be positive");
+        if (memoryBudgetBytes > MAX_BUDGET_BYTES)
+            throw new IllegalArgumentException("memoryBudgetBytes must be at most " + MAX_BUDGET_BYTES + ": " + memoryBudgetBytes);
+        var spliterator = new SpillingDistinctSpliterator<>(source.spliterator(), codec, memoryBudgetBytes);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::close)
+                .onClose(source::close);
+    }
+
+    public static Stream<String> distinct(Stream<String> source, long memoryBudgetBytes) {
+        return distinct(source, BinaryCodec.UTF_8, memoryBudgetBytes);
+    }
+
+    public static <T> Stream<T> approximateDistinct(Stream<T> source, BinaryCodec<T> codec,
+                                                    long memoryBudgetBytes, long expectedElements) {
+        var filter = new BloomFilter(memoryBudgetBytes, expectedElements);
+        Spliterator<T> upstream = source.spliterator();
+        var spliterator = new Spliterators.AbstractSpliterator<T>(upstream.estimateSize(),
+                upstream.characteristics() & (Spliterator.ORDERED | Spliterator.NONNULL) | Spliterator.DISTINCT) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                boolean[] emitted = { false };
+                while (!emitted[0] && upstream.tryAdvance(value -> {
+                    if (filter.add(hash(codec.encode(value), 0))) {
+                        action.accept(value);
+                        emitted[0] = true;
+                    }
+                })) {
+                    // keep pulling until an element passes or the source is exhausted
+                }
+                return emitted[0];
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(source::close);
+    }
+
+    // FNV-1a over the bytes, finished with the SplitMix64 mixer so every bit depends on every byte
+    static long hash(byte[] bytes, int seed) {
+        long h = 0xcbf29ce484222325L ^ (seed * 0x9e3779b97f4a7c15L);
+        for (byte b : bytes) h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        return SplittableRandomStreams.mix64(h);
+    }
+
+    // Exact set of byte keys: slot = (upper 32 hash bits << 32) | (arena offset + 1), 0 means empty.
+    // The probe starts from the stored upper hash bits, so growing the table never re-reads the keys.
+    static final class ByteKeyTable {
+        private long[] slots = new long[16];
+        private int size;
+        private byte[] arena = new byte[256];
+        private int arenaUsed;
+
+        boolean contains(byte[] key, long hash) {
+            int fingerprint = (int) (hash >>> 32);
+            int mask = slots.length - 1;
+            for (int i = fingerprint & mask; ; i = (i + 1) & mask) {
+                long slot = slots[i];
+                if (slot == 0) return false;
+                if ((int) (slot >>> 32) == fingerprint && matches((int) slot - 1, key)) return true;
+            }
+        }
+
+        // Adds a key known to be absent; returns false (and adds nothing) if that would break the budget.
+        // The budget is charged with the peak during growth: the new arrays plus whichever old array is
+        // still reachable while they are filled (slots are regrown first, then the arena).
+        boolean tryAdd(byte[] key, long hash, long budget) {
+            long needed = (long) arenaUsed + Integer.BYTES + key.length;
+            if (needed > MAX_BUDGET_BYTES)
+                throw new IllegalStateException("Key of " + key.length + " bytes does not fit in an arena");
+            long slotBytes = (long) slots.length * Long.BYTES;
+            long newSlotBytes = (size + 1) * 2L > slots.length ? slotBytes * 2 : slotBytes;
+            long newArena = arena.length;
+            while (newArena < needed) newArena = Math.min(Math.max(newArena * 2, needed), MAX_BUDGET_BYTES);
+            long growSlotsPeak = newSlotBytes + (newSlotBytes != slotBytes ? slotBytes : 0) + arena.length;
+            long growArenaPeak = newSlotBytes + newArena + (newArena != arena.length ? arena.length : 0);
+            if (size > 0 && Math.max(growSlotsPeak, growArenaPeak) > budget) return false;
+
+            if (newSlotBytes != slotBytes) {
+                long[] old = slots;
+                slots = new long[(int) (newSlotBytes / Long.BYTES)];
+                for (long slot : old) if (slot != 0) insert(slot);
+            }
+            if (newArena != arena.length) arena = Arrays.copyOf(arena, (int) newArena);
+            int offset = arenaUsed;
+            writeInt(arena, offset, key.length);
+            System.arraycopy(key, 0, arena, offset + Integer.BYTES, key.length);
+            arenaUsed = (int) needed;
+            insert((hash & 0xffffffff00000000L) | (offset + 1L));
+            size++;
+            return true;
+        }
+
+        private boolean matches(int offset, byte[] key) {
+            int length = readInt(arena, offset);
+            int from = offset + Integer.BYTES;
+            return length == key.length && Arrays.equals(arena, from, from + length, key, 0, key.length);
+        }
+
+        private void insert(long slot) {
+            int mask = slots.length - 1;
+            int i = (int) (slot >>> 32) & mask;
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = slot;
+        }
+
+        private static void writeInt(byte[] bytes, int offset, int value) {
+            bytes[offset] = (byte) (value >>> 24);
+            bytes[offset + 1] = (byte) (value >>> 16);
+            bytes[offset + 2] = (byte) (value >>> 8);
+            bytes[offset + 3] = (byte) value;
+        }
+
+        private static int readInt(byte[] bytes, int offset) {
+            return (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16
+                    | (bytes[offset + 2] & 0xff) << 8 | (bytes[offset + 3] & 0xff);
+        }
+    }
+
+    record Run(Path file, long count, int level) {
+    }
+
+    static final class SpillingDistinctSpliterator<T> extends Spliterators.AbstractSpliterator<T> implements Closeable {
+        private final Spliterator<T> source;
+        private final BinaryCodec<T> codec;
+        private final long budget;
+        private final Deque<Run> pending = new ArrayDeque<>();
+        private Path spillDirectory;
+        private int filesCreated;
+
+        private int level;
+        private ByteKeyTable table = new ByteKeyTable();
+        private Path[] partitionFiles;
+        private DataOutputStream[] partitions;
+        private long[] partitionCounts;
+
+        private boolean sourceDone;
+        private T next;
+        private DataInputStream run;
+        private Path runFile;
+        private long runRemaining;
+
+        SpillingDistinctSpliterator(Spliterator<T> source, BinaryCodec<T> codec, long budget) {
+            super(source.estimateSize(), source.characteristics() & Spliterator.NONNULL | Spliterator.DISTINCT);
+            this.source = source;
+            this.codec = codec;
+            this.budget = budget;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                while (!sourceDone) {
+                    if (!source.tryAdvance(value -> next = value)) {
+                        sourceDone = true;
+                        finishPass();
+                        break;
+                    }
+                    T value = next;
+                    next = null;
+                    if (offer(codec.encode(value))) {
+                        action.accept(value);
+                        return true;
+                    }
+                }
+                while (true) {
+                    while (runRemaining > 0) {
+                        runRemaining--;
+                        byte[] bytes = new byte[run.readInt()];
+                        run.readFully(bytes);
+                        if (offer(bytes)) {
+                            action.accept(codec.decode(bytes));
+                            return true;
+                        }
+                    }
+                    if (run != null) {
+                        closeRun();
+                        finishPass();
+                    }
+                    Run nextRun = pending.poll();
+                    if (nextRun == null) {
+                        close();
+                        return false;
+                    }
+                    level = nextRun.level();
+                    table = new ByteKeyTable();
+                    runFile = nextRun.file();
+                    run = new DataInputStream(new BufferedInputStream(Files.newInputStream(runFile)));
+                    runRemaining = nextRun.count();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void closeRun() throws IOException {
+            run.close();
+            run = null;
+            runRemaining = 0;
+            Files.deleteIfExists(runFile);
+        }
+
+        // true if the key is new and kept in memory (emit it), false if seen before or spilled
+        private boolean offer(byte[] key) throws IOException {
+            long hash = hash(key, level);
+            if (table.contains(key, hash)) return false;
+            if (partitions == null && table.tryAdd(key, hash, budget)) return true;
+            spill(key, hash);
+            return false;
+        }
+
+        private void spill(byte[] key, long hash) throws IOException {
+            if (partitions == null) {
+                if (spillDirectory == null) spillDirectory = Files.createTempDirectory("distinct-spill");
+                partitionFiles = new Path[PARTITIONS];
+                partitions = new DataOutputStream[PARTITIONS];
+                partitionCounts = new long[PARTITIONS];
+            }
+            int p = (int) (hash >>> 60);
+            if (partitions[p] == null) {
+                partitionFiles[p] = spillDirectory.resolve("run-" + filesCreated++ + ".bin");
+                partitions[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(partitionFiles[p])));
+            }
+            partitions[p].writeInt(key.length);
+            partitions[p].write(key);
+            partitionCounts[p]++;
+        }
+
+        // Closes this pass' spill files and queues them for deduplication at the next level
+        private void finishPass() throws IOException {
+            if (partitions == null) return;
+            for (int p = 0; p < PARTITIONS; p++) {
+                if (partitions[p] == null) continue;
+                partitions[p].close();
+                pending.push(new Run(partitionFiles[p], partitionCounts[p], level + 1));
+            }
+            partitionFiles = null;
+            partitions = null;
+            partitionCounts = null;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (run != null) closeRun();
+                if (partitions != null)
+                    for (DataOutputStream out : partitions) if (out != null) out.close();
+                partitions = null;
+                pending.clear();
+                if (spillDirectory != null) {
+                    try (Stream<Path> files = Files.list(spillDirectory)) {
+                        for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+                    }
+                    Files.deleteIfExists(spillDirectory);
+                    spillDirectory = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Bloom filter over 64-bit hashes, using double hashing (h1 + i * h2) to derive the k bit positions
+    static final class BloomFilter {
+        private final long[] bits;
+        private final long bitCount;
+        private final int hashes;
+
+        BloomFilter(long memoryBudgetBytes, long expectedElements) {
+            if (memoryBudgetBytes < Long.BYTES) throw new IllegalArgumentException("memoryBudgetBytes too small");
+            if (expectedElements <= 0) throw new IllegalArgumentException("expectedElements must be positive");
+            int words = (int) Math.min(memoryBudgetBytes / Long.BYTES, Integer.MAX_VALUE - 8);
+            bits = new long[words];
+            bitCount = (long) words * Long.SIZE;
+            hashes = (int) Math.max(1, Math.min(16, Math.round((double) bitCount / expectedElements * Math.log(2))));
+        }
+
+        // Sets the element's bits; returns true if at least one of them was clear (element is new)
+        boolean add(long hash) {
+            int h1 = (int) hash, h2 = (int) (hash >>> 32);
+            boolean added = false;
+            for (int i = 1; i <= hashes; i++) {
+                long combined = (h1 + (long) i * h2) & Long.MAX_VALUE;
+                long bit = combined % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                if ((bits[word] & mask) == 0) {
+                    bits[word] |= mask;
+                    added = true;
+                }
+            }
+            return added;
+        }
+    }
+
+    public static void main(String[] args) {
+        Stream<String> s1 = Stream.of("duck", "duck", "duck", "goose");
+        distinct(s1, 1024).forEach(System.out::print); // duckgoose
+        System.out.println();
+
+        // A budget far below the key set forces spilling; the count is still exact
+        try (Stream<String> keys = Stream.iterate(0, n -> n + 1).limit(200_000).map(n -> "key-" + n % 50_000)) {
+            System.out.println(distinct(keys, 64 * 1024).count()); // 50000
+        }
+
+        try (Stream<String> keys = Stream.iterate(0, n -> n + 1).limit(200_000).map(n -> "key-" + n % 50_000)) {
+            System.out.println(approximateDistinct(keys, BinaryCodec.UTF_8, 64 * 1024, 50_000).count()); // close to 50000
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+// Linear-time replacement for reduce("", (z, c) -> z + c) and reduce("", String::concat).
+// Both reduce forms copy the partial result again for every element (O(n²) characters copied),
+// and in parallel every combine builds yet another String.
+//
+// This collector only remembers the fragments and their total length while the stream runs:
+// ■ accumulate: add the fragment to the current segment, add its length to the total.
+//               Anything that is not already a String is snapshotted with toString() first (as
+//               Collectors.joining does), so a reused StringBuilder cannot change the result later.
+// ■ combine:    hand the right-hand segments over to the left (no characters are copied)
+// ■ finish:     gather the fragment references into one array and let String.join("", ...) size the
+//               output exactly and copy every character into it once, straight into the String's
+//               own storage. A char[] or StringBuilder followed by new String/toString would copy twice.
+public class ConcatenatingCollector implements Collector<CharSequence, ConcatenatingCollector.Segments, String> {
+
+    private static final ConcatenatingCollector INSTANCE = new ConcatenatingCollector();
+
+    private ConcatenatingCollector() {
+    }
+
+    public static Collector<CharSequence, ?, String> concatenating() {
+        return INSTANCE;
+    }
+
+    static final class Segment {
+        final List<String> fragments = new ArrayList<>();
+    }
+
+    static final class Segments {
+        final List<Segment> segments = new ArrayList<>(1);
+        long length;
+        int count;
+
+        void add(CharSequence fragment) {
+            String str = fragment.toString();
+            if (segments.isEmpty()) segments.add(new Segment());
+            segments.get(segments.size() - 1).fragments.add(str);
+            length += str.length();
+            count++;
+        }
+
+        Segments merge(Segments other) {
+            segments.addAll(other.segments);
+            length += other.length;
+            count += other.count;
+            return this;
+        }
+
+        String concat() {
+            if (length > Integer.MAX_VALUE - 8)
+                throw new OutOfMemoryError("Concatenated length " + length + " exceeds the maximum String size");
+            String[] all = new String[count];
+            int i = 0;
+            for (Segment segment : segments)
+                for (String fragment : segment.fragments) all[i++] = fragment;
+            return String.join("", all);
+        }
+    }
+
+    @Override
+    public Supplier<Segments> supplier() {
+        return Segments::new;
+    }
+
+    @Override
+    public BiConsumer<Segments, CharSequence> accumulator() {
+        return Segments::add;
+    }
+
+    @Override
+    public BinaryOperator<Segments> combiner() {
+        return Segments::merge;
+    }
+
+    @Override
+    public Function<Segments, String> finisher() {
+        return Segments::concat;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Set.of();
+    }
+
+    public static void main(String[] args) {
+        String word = Stream.of("w", "o", "l", "f").collect(concatenating());
+        System.out.println(word); // wolf
+
+        String parallelWord = Stream.of("w", "o", "l", "f").parallel().collect(concatenating());
+        System.out.println(parallelWord); // wolf
+
+        var reused = new StringBuilder();
+        String snapshots = Stream.of("a", "b", "c")
+                .map(c -> {
+                    reused.setLength(0);
+                    return reused.append(c).append(c);
+                })
+                .collect(concatenating());
+        System.out.println(snapshots); // aabbcc
+
+        String empty = Stream.<String>empty().collect(concatenating());
+        System.out.println(empty.isEmpty()); // true
+    }
+}
@@ -0,0 +1,352 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// External merge sort for streams larger than the heap.
+// sorted() and sorted(comparator) buffer the whole stream into one array before emitting anything.
+//
+// sorted(stream, comparator, codec, memoryBudgetBytes, runSize):
+// ■ Nothing happens until the terminal operation asks for the first element (like sorted() itself).
+// ■ Reads the source into runs of at most runSize elements and memoryBudgetBytes of heap. Each buffered
+//   element is charged its encoded size plus ENTRY_OVERHEAD_BYTES, a rough estimate (compressed oops)
+//   of the Entry record, the decoded value, the byte[] header and the list and array slots.
+// ■ Sorts each run in memory (Arrays.parallelSort when parallel is true) and writes it to a temp file
+//   as length-prefixed records, in the BinaryCodec's binary form.
+// ■ Merges the runs lazily: a priority queue holds the head of every run, so the returned Stream only
+//   keeps one element and one read buffer per run in memory. More than MAX_FAN_IN runs are first merged
+//   into bigger runs so the number of open files stays bounded.
+// If the whole input fits in a single run, nothing touches the disk.
+// The sort is stable: equal elements keep their encounter order.
+public class ExternalSort {
+
+    static final int MAX_FAN_IN = 64;
+    static final int MIN_BUFFER = 4 * 1024;
+    static final int MAX_BUFFER = 1024 * 1024;
+    static final int ENTRY_OVERHEAD_BYTES = 72;
+
+    private ExternalSort() {
+    }
+
+    public static <T> Stream<T> sorted(Stream<T> source, Comparator<? super T> comparator, BinaryCodec<T> codec,
+                                       long memoryBudgetBytes, int runSize, boolean parallel) {
+        if (memoryBudgetBytes <= 0) throw new IllegalArgumentException("memoryBudgetBytes must be positive");
+        if (runSize <= 0) throw new IllegalArgumentException("runSize must be positive");
+        var sorter = new Sorter<>(comparator, codec, memoryBudgetBytes, runSize, parallel);
+        Spliterator<T> spliterator = sorter.new DeferredSpliterator(source.spliterator());
+        return StreamSupport.stream(spliterator, false).onClose(sorter::close).onClose(source::close);
+    }
+
+    public static <T extends Comparable<? super T>> Stream<T> sorted(Stream<T> source, BinaryCodec<T> codec,
+                                                                     long memoryBudgetBytes, int runSize) {
+        return sorted(source, Comparator.naturalOrder(), codec, memoryBudgetBytes, runSize, false);
+    }
+
+    record Entry<T>(T value, byte[] bytes) {
+    }
+
+    // One sorted run on disk, read back one record at a time
+    static final class RunReader<T> implements Closeable {
+        final int run;
+        private final DataInputStream in;
+        private final BinaryCodec<T> codec;
+        private long remaining;
+        T head;
+        byte[] headBytes;
+
+        RunReader(int run, Path file, long count, BinaryCodec<T> codec, int bufferSize) throws IOException {
+            this.run = run;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+            this.codec = codec;
+            this.remaining = count;
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) return false;
+            remaining--;
+            headBytes = new byte[in.readInt()];
+            in.readFully(headBytes);
+            head = codec.decode(headBytes);
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    record Run(Path file, long count) {
+    }
+
+    static final class Sorter<T> implements Closeable {
+        private final Comparator<? super T> comparator;
+        private final BinaryCodec<T> codec;
+        private final long budget;
+        private final int runSize;
+        private final boolean parallel;
+        private final List<RunReader<T>> open = new ArrayList<>();
+        private Path directory;
+        private int filesCreated;
+        private T next;
+
+        Sorter(Comparator<? super T> comparator, BinaryCodec<T> codec, long budget, int runSize, boolean parallel) {
+            this.comparator = comparator;
+            this.codec = codec;
+            this.budget = budget;
+            this.runSize = runSize;
+            this.parallel = parallel;
+        }
+
+        Spliterator<T> sort(Spliterator<T> source) throws IOException {
+            List<Run> runs = new ArrayList<>();
+            List<Entry<T>> buffer = new ArrayList<>();
+            long bufferedBytes = 0;
+            while (source.tryAdvance(value -> next = value)) {
+                // A full buffer is only spilled once another element shows up,
+                // so an input of exactly one run never touches the disk
+                if (buffer.size() >= runSize || bufferedBytes >= budget) {
+                    runs.add(writeRun(sortBuffer(buffer)));
+                    buffer.clear();
+                    bufferedBytes = 0;
+                }
+                byte[] bytes = codec.encode(next);
+                buffer.add(new Entry<>(next, bytes));
+                bufferedBytes += bytes.length + ENTRY_OVERHEAD_BYTES;
+                next = null;
+            }
+            if (runs.isEmpty()) {
+                Entry<T>[] entries = sortBuffer(buffer);
+                return Arrays.stream(entries).map(Entry::value).spliterator();
+            }
+            if (!buffer.isEmpty()) runs.add(writeRun(sortBuffer(buffer)));
+            while (runs.size() > MAX_FAN_IN) runs = mergePass(runs);
+            return merge(runs);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Entry<T>[] sortBuffer(List<Entry<T>> buffer) {
+            Entry<T>[] entries = buffer.toArray((Entry<T>[]) new Entry<?>[0]);
+            Comparator<Entry<T>> byValue = (a, b) -> comparator.compare(a.value(), b.value());
+            if (parallel) Arrays.parallelSort(entries, byValue);
+            else Arrays.sort(entries, byValue);
+            return entries;
+        }
+
+        private Run writeRun(Entry<T>[] entries) throws IOException {
+            Path file = newFile();
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), MAX_BUFFER))) {
+                for (Entry<T> entry : entries) {
+                    out.writeInt(entry.bytes().length);
+                    out.write(entry.bytes());
+                }
+            }
+            return new Run(file, entries.length);
+        }
+
+        // Merges groups of MAX_FAN_IN runs into single, larger runs
+        private List<Run> mergePass(List<Run> runs) throws IOException {
+            List<Run> merged = new ArrayList<>();
+            for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+                List<Run> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+                Path file = newFile();
+                long count = 0;
+                Spliterator<T> spliterator = merge(group);
+                try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), MAX_BUFFER))) {
+                    Iterator<byte[]> records = mergedRecords(spliterator);
+                    while (records.hasNext()) {
+                        byte[] bytes = records.next();
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                        count++;
+                    }
+                }
+                for (Run run : group) Files.deleteIfExists(run.file());
+                merged.add(new Run(file, count));
+            }
+            return merged;
+        }
+
+        private Iterator<byte[]> mergedRecords(Spliterator<T> spliterator) {
+            MergeSpliterator merge = (MergeSpliterator) spliterator;
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return merge.hasNext();
+                }
+
+                @Override
+                public byte[] next() {
+                    return merge.nextRecord().headBytes;
+                }
+            };
+        }
+
+        private Spliterator<T> merge(List<Run> runs) throws IOException {
+            int bufferSize = (int) Math.max(MIN_BUFFER, Math.min(MAX_BUFFER, budget / runs.size()));
+            Comparator<RunReader<T>> byHead = (a, b) -> {
+                int c = comparator.compare(a.head, b.head);
+                return c != 0 ? c : Integer.compare(a.run, b.run); // earlier run first keeps the sort stable
+            };
+            var queue = new PriorityQueue<>(runs.size(), byHead);
+            for (int i = 0; i < runs.size(); i++) {
+                var reader = new RunReader<>(i, runs.get(i).file(), runs.get(i).count(), codec, bufferSize);
+                open.add(reader);
+                if (reader.advance()) queue.add(reader);
+                else closeReader(reader);
+            }
+            return new MergeSpliterator(queue);
+        }
+
+        private void closeReader(RunReader<T> reader) throws IOException {
+            reader.close();
+            open.remove(reader);
+        }
+
+        private Path newFile() throws IOException {
+            if (directory == null) directory = Files.createTempDirectory("external-sort");
+            return directory.resolve("run-" + filesCreated++ + ".bin");
+        }
+
+        // Runs sort() on the first element request, so building the stream reads nothing
+        final class DeferredSpliterator extends Spliterators.AbstractSpliterator<T> {
+            private Spliterator<T> source;
+            private Spliterator<T> sorted;
+
+            DeferredSpliterator(Spliterator<T> source) {
+                super(source.estimateSize(), Spliterator.ORDERED | Spliterator.SORTED);
+                this.source = source;
+            }
+
+            @Override
+            public Comparator<? super T> getComparator() {
+                return comparator;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                return sorted().tryAdvance(action);
+            }
+
+            @Override
+            public void forEachRemaining(Consumer<? super T> action) {
+                sorted().forEachRemaining(action);
+            }
+
+            private Spliterator<T> sorted() {
+                if (sorted == null) {
+                    try {
+                        sorted = sort(source);
+                        source = null;
+                    } catch (IOException e) {
+                        close();
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return sorted;
+            }
+        }
+
+        final class MergeSpliterator extends Spliterators.AbstractSpliterator<T> {
+            private final PriorityQueue<RunReader<T>> queue;
+            private RunReader<T> pendingAdvance;
+
+            MergeSpliterator(PriorityQueue<RunReader<T>> queue) {
+                super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.SORTED);
+                this.queue = queue;
+            }
+
+            @Override
+            public Comparator<? super T> getComparator() {
+                return comparator;
+            }
+
+            boolean hasNext() {
+                refill();
+                return !queue.isEmpty();
+            }
+
+            // Removes the smallest head; its reader moves on only when the next element is requested,
+            // so the caller can still read the head (and its bytes) it was given.
+            RunReader<T> nextRecord() {
+                refill();
+                pendingAdvance = queue.poll();
+                return pendingAdvance;
+            }
+
+            private void refill() {
+                if (pendingAdvance == null) return;
+                try {
+                    if (pendingAdvance.advance()) queue.add(pendingAdvance);
+                    else closeReader(pendingAdvance);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                pendingAdvance = null;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!hasNext()) {
+                    close();
+                    return false;
+                }
+                action.accept(nextRecord().head);
+                return true;
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                for (RunReader<T> reader : open) reader.close();
+                open.clear();
+                if (directory != null) {
+                    try (Stream<Path> files = Files.list(directory)) {
+                        for (Path file : (Iterable<Path>) files::iterator) Files.deleteIfExists(file);
+                    }
+                    Files.deleteIfExists(directory);
+                    directory = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Stream<String> s4 = Stream.of("brown-", "bear-");
+        sorted(s4, BinaryCodec.UTF_8, 1024, 1000).forEach(System.out::print); // bear-brown-
+        System.out.println();
+
+        Stream<String> s5 = Stream.of("brown bear-", "grizzly-");
+        sorted(s5, Comparator.reverseOrder(), BinaryCodec.UTF_8, 1024, 1000, false)
+                .forEach(System.out::print); // grizzly-brown bear-
+        System.out.println();
+
+        // Runs of 1 000 elements force 1 000 runs on disk and one intermediate merge pass
+        try (Stream<Long> sorted = sorted(SplittableRandomStreams.longs(42, 1_000_000).boxed(),
+                BinaryCodec.LONG, 64 * 1024, 1_000)) {
+            long[] previous = { Long.MIN_VALUE };
+            System.out.println(sorted.allMatch(n -> previous[0] <= (previous[0] = n))); // true
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Flattens collections (or arrays) of elements without flatMap's per-element Stream.
+// flatMap(m -> m.stream()) builds a new Stream pipeline for every inner list, which dominates when
+// the lists are tiny, and the resulting stream has no size so parallel splits are guesses.
+//
+// One FlatSpliterator walks all inner collections directly:
+// ■ the inner sizes are summed up front (prefix sums), so the stream is SIZED
+// ■ trySplit() cuts the outer list where half of the *elements* lie, not half of the lists,
+//   and only splits inside an inner collection when a single one is left
+// ■ empty inner collections are skipped with a size check, without creating anything
+// ■ forEachRemaining() hands each inner collection to its own forEach (a plain loop for arrays)
+public class Flattening {
+
+    private Flattening() {
+    }
+
+    public static <T> Stream<T> flatten(List<? extends Collection<? extends T>> lists) {
+        return flatten(lists, false);
+    }
+
+    public static <T> Stream<T> flatten(List<? extends Collection<? extends T>> lists, boolean parallel) {
+        long[] offsets = new long[lists.size() + 1];
+        boolean allLists = true;
+        for (int i = 0; i < lists.size(); i++) {
+            Collection<? extends T> inner = lists.get(i);
+            offsets[i + 1] = offsets[i] + inner.size();
+            allLists &= inner instanceof List;
+        }
+        // Spliterators of lists are SUBSIZED; other collections only promise a total size
+        int characteristics = Spliterator.ORDERED | Spliterator.SIZED | (allLists ? Spliterator.SUBSIZED : 0);
+        return StreamSupport.stream(
+                new FlatSpliterator<>(new CollectionAccess<T>(lists), offsets, 0, lists.size(), null, characteristics),
+                parallel);
+    }
+
+    // For sources that are already a stream, like Stream.of(zero, one, two).
+    // Only the outer references are collected first; the inner collections are not copied.
+    public static <T> Stream<T> flatten(Stream<? extends Collection<? extends T>> lists) {
+        boolean parallel = lists.isParallel();
+        List<? extends Collection<? extends T>> outer = lists.collect(Collectors.toList());
+        return flatten(outer, parallel);
+    }
+
+    public static <T> Stream<T> flattenArrays(List<T[]> arrays) {
+        return flattenArrays(arrays, false);
+    }
+
+    public static <T> Stream<T> flattenArrays(List<T[]> arrays, boolean parallel) {
+        long[] offsets = new long[arrays.size() + 1];
+        for (int i = 0; i < arrays.size(); i++) offsets[i + 1] = offsets[i] + arrays.get(i).length;
+        return StreamSupport.stream(
+                new FlatSpliterator<>(new ArrayAccess<>(arrays), offsets, 0, arrays.size(), null,
+                        Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED),
+                parallel);
+    }
+
+    // How FlatSpliterator reaches the elements of outer element i
+    interface InnerAccess<T> {
+        Spliterator<T> spliterator(int i);
+
+        void forEach(int i, Consumer<? super T> action);
+    }
+
+    private record CollectionAccess<T>(List<? extends Collection<? extends T>> outer) implements InnerAccess<T> {
+        @Override
+        @SuppressWarnings("unchecked")
+        public Spliterator<T> spliterator(int i) {
+            return (Spliterator<T>) outer.get(i).spliterator();
+        }
+
+        @Override
+        public void forEach(int i, Consumer<? super T> action) {
+            outer.get(i).forEach(action);
+        }
+    }
+
+    private record ArrayAccess<T>(List<T[]> outer) implements InnerAccess<T> {
+        @Override
+        public Spliterator<T> spliterator(int i) {
+            return Arrays.spliterator(outer.get(i));
+        }
+
+        @Override
+        public void forEach(int i, Consumer<? super T> action) {
+            for (T value : outer.get(i)) action.accept(value);
+        }
+    }
+
+    // Covers current (an inner spliterator already in progress), then outer elements [lo, hi)
+    static final class FlatSpliterator<T> implements Spliterator<T> {
+        private final InnerAccess<T> access;
+        private final long[] offsets;
+        private int lo;
+        private final int hi;
+        private Spliterator<T> current;
+        private final int characteristics;
+
+        FlatSpliterator(InnerAccess<T> access, long[] offsets, int lo, int hi, Spliterator<T> current,
+                        int characteristics) {
+            this.access = access;
+            this.offsets = offsets;
+            this.lo = lo;
+            this.hi = hi;
+            this.current = current;
+            this.characteristics = characteristics;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                if (current != null) {
+                    if (current.tryAdvance(action)) return true;
+                    current = null;
+                }
+                while (lo < hi && offsets[lo + 1] == offsets[lo]) lo++; // skip empty inner collections
+                if (lo >= hi) return false;
+                current = access.spliterator(lo++);
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (current != null) {
+                current.forEachRemaining(action);
+                current = null;
+            }
+            for (int i = lo, end = hi; i < end; i++)
+                if (offsets[i + 1] != offsets[i]) access.forEach(i, action);
+            lo = hi;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (hi - lo >= 2) {
+                // Outer index closest to the element midpoint, kept strictly inside (lo, hi)
+                long currentSize = current == null ? 0 : current.estimateSize();
+                long target = offsets[lo] + (currentSize + offsets[hi] - offsets[lo]) / 2 - currentSize;
+                int mid = Arrays.binarySearch(offsets, lo, hi + 1, target);
+                if (mid < 0) mid = -mid - 1;
+                mid = Math.max(lo + 1, Math.min(hi - 1, mid));
+                var prefix = new FlatSpliterator<>(access, offsets, lo, mid, current, characteristics);
+                lo = mid;
+                current = null;
+                return prefix;
+            }
+            if (current == null && hi - lo == 1) current = access.spliterator(lo++);
+            return current == null ? null : current.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            return (current == null ? 0 : current.estimateSize()) + offsets[hi] - offsets[lo];
+        }
+
+        @Override
+        public int characteristics() {
+            if (current == null || current.hasCharacteristics(SIZED)) return characteristics;
+            return characteristics & ~(SIZED | SUBSIZED);
+        }
+    }
+
+    public static void main(String[] args) {
+        List<String> zero = List.of();
+        var one = List.of("Bonobo");
+        var two = List.of("Mama Gorilla", "Baby Gorilla");
+        Stream<List<String>> animals = Stream.of(zero, one, two);
+
+        flatten(animals).forEach(System.out::println);
+        /*
+         * Result:
+         * Bonobo
+         * Mama Gorilla
+         * Baby Gorilla
+         * */
+
+        System.out.println(flatten(List.of(zero, one, two)).count()); // 3, straight from the size
+        System.out.println(flattenArrays(List.of(new String[] { "a", "b" }, new String[] { "c" }))
+                .collect(Collectors.joining())); // abc
+    }
+}
@@ -0,0 +1,173 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// A growable int[] in place of List<Integer>.
+// ArrayList<Integer> stores a reference per element to an Integer object of its own (16 bytes, outside the
+// cache of -128..127), so a million lengths from map(String::length) cost about 20 MB instead of 4 MB,
+// and every get() is a pointer chase plus an unboxing.
+// ■ stream() is an IntStream over the live elements: reduce(1, (a, b) -> a * b) without BinaryOperator<Integer>
+// ■ collect(IntStream) and collector(ToIntFunction) build one without boxing, in parallel too
+// Like ArrayList it is not thread-safe, and streaming it while it is modified has undefined results.
+// It holds at most MAX_SIZE elements; growing past that throws an IllegalStateException.
+public class IntArrayList {
+
+    // Largest int[] the VM reliably allocates
+    public static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final int[] EMPTY = {};
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this.elements = EMPTY;
+    }
+
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("negative capacity: " + initialCapacity);
+        this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    public static IntArrayList of(int... values) {
+        IntArrayList list = new IntArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public static IntArrayList collect(IntStream values) {
+        return values.collect(IntArrayList::new, IntArrayList::add, IntArrayList::addAll);
+    }
+
+    // Like Collectors.toList() after map(toInt), without the Integers in between
+    public static <T> Collector<T, ?, IntArrayList> collector(ToIntFunction<? super T> toInt) {
+        return Collector.of(
+                IntArrayList::new,
+                (list, element) -> list.add(toInt.applyAsInt(element)),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                });
+    }
+
+    // minCapacity is negative when size + added overflowed an int
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_SIZE)
+            throw new IllegalStateException("IntArrayList cannot hold more than " + MAX_SIZE + " elements");
+        long preferred = elements.length + (elements.length >> 1) + 1L;
+        int capacity = (int) Math.min(MAX_SIZE, Math.max(minCapacity, preferred));
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    public void add(int value) {
+        if (size == elements.length) grow(size + 1);
+        elements[size++] = value;
+    }
+
+    public void addAll(int... values) {
+        if (size + values.length > elements.length) grow(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+    }
+
+    public void addAll(IntArrayList other) {
+        if (size + other.size > elements.length) grow(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+
+    public int get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    // Returns the value replaced
+    public int set(int index, int value) {
+        Objects.checkIndex(index, size);
+        int old = elements[index];
+        elements[index] = value;
+        return old;
+    }
+
+    // Returns the value removed; later elements move down one place
+    public int removeAt(int index) {
+        Objects.checkIndex(index, size);
+        int old = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    public int indexOf(int value) {
+        for (int i = 0; i < size; i++) if (elements[i] == value) return i;
+        return -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    public void trimToSize() {
+        if (elements.length > size) elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    // Equal to another IntArrayList with the same elements in the same order
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntArrayList other && Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) hash = 31 * hash + elements[i];
+        return hash; // same as List.hashCode() of the boxed values
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    public static void main(String[] args) {
+        // CommonIntermediateOperations: map(String::length), without a Stream<Integer>
+        IntArrayList lengths = Stream.of("monkey", "gorilla", "bonobo").collect(IntArrayList.collector(String::length));
+        System.out.println(lengths); // [6, 7, 6]
+
+        // CommonStreamOperations: reduce with (a, b) -> a * b, on ints
+        System.out.println(IntArrayList.of(3, 5, 6).stream().reduce(1, (a, b) -> a * b)); // 90
+
+        IntArrayList remainders = IntArrayList.collect(IntStream.rangeClosed(1, 1_000_000).parallel().map(i -> i % 1000));
+        System.out.println(remainders.size() + " " + remainders.get(998) + " " + remainders.stream().max().getAsInt());
+        // 1000000 999 999
+    }
+}
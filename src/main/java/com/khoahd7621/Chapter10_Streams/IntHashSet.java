@@ -0,0 +1,218 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Set<Integer> as one int[] of slots: open addressing with linear probing.
+// HashSet<Integer> is a HashMap underneath: a 32-byte node plus a 16-byte Integer per element,
+// besides the table. Here an element is 4 bytes in a table kept at most 3/4 full.
+// ■ the slot is picked by Fibonacci hashing, (value * 0x9E3779B9) >>> shift, so runs of consecutive
+//   values spread over the table instead of filling neighbouring slots
+// ■ 0 marks an empty slot; the value 0 itself is tracked by a flag
+// ■ remove() shifts the following entries of the run back, so there are no tombstones to clean up
+// ■ stream() is an IntStream over the elements; collect(IntStream) and collector(ToIntFunction) build one
+// ■ the table stops at MAX_CAPACITY (2^30) slots, so at most MAX_SIZE (805 306 368) entries besides zero fit;
+//   one more throws an IllegalStateException. ObjectIntHashMap and LongLongHashMap share these limits.
+// Not thread-safe.
+public class IntHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+    static final int MAX_CAPACITY = 1 << 30;
+    public static final int MAX_SIZE = MAX_CAPACITY - (MAX_CAPACITY >> 2);
+
+    private int[] slots;
+    private int mask;
+    private int shift;
+    private int maxFill;
+    private int size; // not counting zero
+    private boolean hasZero;
+
+    public IntHashSet() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    // Room for expectedSize elements without growing
+    public IntHashSet(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("negative size: " + expectedSize);
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        long needed = (long) expectedSize * 4 / 3 + 1;
+        if (needed > MAX_CAPACITY)
+            throw new IllegalArgumentException("too many elements: " + expectedSize + ", at most " + MAX_SIZE + " fit");
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    // Called before adding an entry to a table holding size of them, so a full table is never doubled past 2^30
+    static void ensureRoom(int size, String what) {
+        if (size >= MAX_SIZE) throw new IllegalStateException(what + " cannot hold more than " + MAX_SIZE + " entries");
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        maxFill = capacity - (capacity >> 2);
+    }
+
+    public static IntHashSet of(int... values) {
+        IntHashSet set = new IntHashSet(values.length);
+        for (int value : values) set.add(value);
+        return set;
+    }
+
+    public static IntHashSet collect(IntStream values) {
+        return values.collect(IntHashSet::new, IntHashSet::add, IntHashSet::addAll);
+    }
+
+    // Like Collectors.toSet() after map(toInt), without the Integers in between
+    public static <T> Collector<T, ?, IntHashSet> collector(ToIntFunction<? super T> toInt) {
+        return Collector.of(
+                IntHashSet::new,
+                (set, element) -> set.add(toInt.applyAsInt(element)),
+                (left, right) -> {
+                    left.addAll(right);
+                    return left;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private int slotOf(int value) {
+        return (value * 0x9E3779B9) >>> shift;
+    }
+
+    // Returns false if the value was already there
+    public boolean add(int value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            return hasZero = true;
+        }
+        int i = slotOf(value);
+        for (int current; (current = slots[i]) != 0; i = (i + 1) & mask)
+            if (current == value) return false;
+        ensureRoom(size, "IntHashSet");
+        slots[i] = value;
+        if (++size > maxFill) rehash(slots.length << 1);
+        return true;
+    }
+
+    public void addAll(IntHashSet other) {
+        if (other.hasZero) hasZero = true;
+        for (int value : other.slots) if (value != 0) add(value);
+    }
+
+    public boolean contains(int value) {
+        if (value == 0) return hasZero;
+        for (int i = slotOf(value), current; (current = slots[i]) != 0; i = (i + 1) & mask)
+            if (current == value) return true;
+        return false;
+    }
+
+    public boolean remove(int value) {
+        if (value == 0) {
+            boolean had = hasZero;
+            hasZero = false;
+            return had;
+        }
+        for (int i = slotOf(value), current; (current = slots[i]) != 0; i = (i + 1) & mask) {
+            if (current == value) {
+                closeGap(i);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Moves back every later entry of the run that may sit in the gap (its home slot is not after the gap)
+    private void closeGap(int gap) {
+        for (int j = (gap + 1) & mask, current; (current = slots[j]) != 0; j = (j + 1) & mask) {
+            if (((j - slotOf(current)) & mask) >= ((j - gap) & mask)) {
+                slots[gap] = current;
+                gap = j;
+            }
+        }
+        slots[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        allocate(capacity);
+        for (int value : old) {
+            if (value == 0) continue;
+            int i = slotOf(value);
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = value;
+        }
+    }
+
+    public int size() {
+        return hasZero ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+        hasZero = false;
+    }
+
+    public void forEach(IntConsumer action) {
+        if (hasZero) action.accept(0);
+        for (int value : slots) if (value != 0) action.accept(value);
+    }
+
+    // In table order, not sorted
+    public IntStream stream() {
+        IntStream values = Arrays.stream(slots).filter(value -> value != 0);
+        return hasZero ? IntStream.concat(IntStream.of(0), values) : values;
+    }
+
+    public int[] toArray() {
+        return stream().toArray();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof IntHashSet other) || other.size() != size() || other.hasZero != hasZero) return false;
+        for (int value : slots) if (value != 0 && !other.contains(value)) return false;
+        return true;
+    }
+
+    // Same as Set.hashCode() of the boxed values
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int value : slots) hash += value;
+        return hash;
+    }
+
+    // Sorted, so equal sets print the same
+    @Override
+    public String toString() {
+        int[] sorted = toArray();
+        Arrays.sort(sorted);
+        return Arrays.toString(sorted);
+    }
+
+    public static void main(String[] args) {
+        IntHashSet lengths = Stream.of("monkey", "gorilla", "bonobo")
+                .collect(IntHashSet.collector(String::length));
+        System.out.println(lengths); // [6, 7]
+
+        IntHashSet set = IntHashSet.collect(IntStream.range(0, 1_000_000).parallel().map(i -> i % 1000 * 7));
+        System.out.println(set.size() + " " + set.contains(0) + " " + set.contains(6993) + " " + set.contains(6994));
+        // 1000 true true false
+
+        IntStream.range(0, 500).forEach(i -> set.remove(i * 7));
+        System.out.println(set.size() + " " + set.stream().min().getAsInt()); // 500 3500
+    }
+}
@@ -0,0 +1,125 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+// int version of LongSteppedRange: the primitive, SIZED | SUBSIZED replacement for
+// Stream.iterate(1, n -> n + 2) and Stream.iterate(1, n -> n < 100, n -> n + 2).
+public record IntSteppedRange(int start, int step, int size) {
+
+    public IntSteppedRange {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        if (size < 0) throw new IllegalArgumentException("size must not be negative: " + size);
+        long last = start + (long) step * Math.max(0, size - 1);
+        if (last != (int) last) throw new IllegalArgumentException("last element does not fit in an int");
+    }
+
+    // start, start + step, ... while below bound (step > 0) or above bound (step < 0), bound excluded
+    public static IntSteppedRange of(int start, int step, int bound) {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        if (step > 0 ? start >= bound : start <= bound) return new IntSteppedRange(start, step, 0);
+        long distance = step > 0 ? (long) bound - start : (long) start - bound;
+        long size = (distance - 1) / Math.abs((long) step) + 1;
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("more than Integer.MAX_VALUE elements");
+        return new IntSteppedRange(start, step, (int) size);
+    }
+
+    // Like Stream.iterate(start, n -> n + step), stopping before the int overflows: every value up to and
+    // including the last one that fits (Integer.MAX_VALUE itself for step 1). The size is an int, so a range
+    // that would have more elements, such as from(-5, 1), is capped at the first Integer.MAX_VALUE of them.
+    public static IntSteppedRange from(int start, int step) {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        long distance = step > 0 ? (long) Integer.MAX_VALUE - start : (long) start - Integer.MIN_VALUE;
+        long size = distance / Math.abs((long) step) + 1;
+        return new IntSteppedRange(start, step, (int) Math.min(size, Integer.MAX_VALUE));
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return start + index * step;
+    }
+
+    public IntSteppedRange skip(long n) {
+        if (n < 0) throw new IllegalArgumentException("n must not be negative: " + n);
+        if (n >= size) return new IntSteppedRange(start, step, 0);
+        return new IntSteppedRange(start + (int) n * step, step, size - (int) n);
+    }
+
+    public IntSteppedRange limit(long maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        return maxSize >= size ? this : new IntSteppedRange(start, step, (int) maxSize);
+    }
+
+    public IntStream stream() {
+        return StreamSupport.intStream(new RangeSpliterator(start, step, 0, size), false);
+    }
+
+    public IntStream parallelStream() {
+        return StreamSupport.intStream(new RangeSpliterator(start, step, 0, size), true);
+    }
+
+    private static final class RangeSpliterator implements Spliterator.OfInt {
+        private final int start;
+        private final int step;
+        private int index;
+        private final int fence;
+
+        RangeSpliterator(int start, int step, int index, int fence) {
+            this.start = start;
+            this.step = step;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return lo >= mid ? null : new RangeSpliterator(start, step, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) return false;
+            action.accept(start + index++ * step);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int i = index, end = fence, value = start + i * step;
+            index = end;
+            for (; i < end; i++, value += step) action.accept(value);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT | (step > 0 ? SORTED : 0);
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            if (step > 0) return null;
+            throw new IllegalStateException();
+        }
+    }
+
+    public static void main(String[] args) {
+        // Stream.iterate(1, n -> n < 100, n -> n + 2)
+        var oddNumberUnder100 = IntSteppedRange.of(1, 2, 100);
+        System.out.println(oddNumberUnder100.stream().count()); // 50
+
+        // Stream.iterate(1, n -> n + 1).skip(5).limit(2)
+        IntSteppedRange.from(1, 1).skip(5).limit(2).stream().forEach(System.out::print); // 67
+        System.out.println();
+
+        System.out.println(IntSteppedRange.from(1, 2).parallelStream().asLongStream().sum()); // 1152921504606846976
+    }
+}
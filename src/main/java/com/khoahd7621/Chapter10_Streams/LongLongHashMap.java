@@ -0,0 +1,212 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+// Map<Long, Long> as two long[] arrays with open addressing and linear probing, as in IntHashSet.
+// A HashMap<Long, Long> entry is a 32-byte node and two 16-byte Longs; here it is 16 bytes in the arrays.
+// ■ key 0 marks an empty slot; an entry for key 0 is kept beside the table
+// ■ keys are placed by Fibonacci hashing, (key * 0x9E3779B97F4A7C15L) >>> shift
+// ■ keys() and values() are LongStreams over the entries; collector builds one from a stream
+// Not thread-safe.
+public class LongLongHashMap {
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int shift;
+    private int maxFill;
+    private int size; // not counting key 0
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public LongLongHashMap() {
+        this(8);
+    }
+
+    // Room for expectedSize entries without growing
+    public LongLongHashMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("negative size: " + expectedSize);
+        allocate(IntHashSet.tableSizeFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+        maxFill = capacity - (capacity >> 2);
+    }
+
+    // Like Collectors.toMap(key, value, merge), with long keys and values
+    public static <T> Collector<T, ?, LongLongHashMap> collector(
+            ToLongFunction<? super T> key, ToLongFunction<? super T> value, LongBinaryOperator merge) {
+        return Collector.of(
+                LongLongHashMap::new,
+                (map, element) -> map.merge(key.applyAsLong(element), value.applyAsLong(element), merge),
+                (left, right) -> {
+                    right.forEach((k, v) -> left.merge(k, v, merge));
+                    return left;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // Occurrences of each value, like groupingBy(identity(), counting()) on a Stream<Long>
+    public static LongLongHashMap counting(LongStream values) {
+        return values.collect(LongLongHashMap::new, (map, value) -> map.addTo(value, 1),
+                (left, right) -> right.forEach(left::addTo));
+    }
+
+    private int slotOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    // Slot holding key (not 0), or -(empty slot where it would go) - 1
+    private int find(long key) {
+        int i = slotOf(key);
+        for (long current; (current = keys[i]) != 0; i = (i + 1) & mask)
+            if (current == key) return i;
+        return -i - 1;
+    }
+
+    private void insert(int emptySlot, long key, long value) {
+        IntHashSet.ensureRoom(size, "LongLongHashMap");
+        keys[emptySlot] = key;
+        values[emptySlot] = value;
+        if (++size > maxFill) rehash(keys.length << 1);
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0 ? hasZeroKey : find(key) >= 0;
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0) return hasZeroKey ? zeroValue : defaultValue;
+        int i = find(key);
+        return i >= 0 ? values[i] : defaultValue;
+    }
+
+    public void put(long key, long value) {
+        merge(key, value, (old, replacement) -> replacement);
+    }
+
+    // Adds delta to the key's value (0 if absent) and returns the new value
+    public long addTo(long key, long delta) {
+        return merge(key, delta, Long::sum);
+    }
+
+    // Like Map.merge: value if the key is absent, merge(old, value) otherwise; returns the new value
+    public long merge(long key, long value, LongBinaryOperator merge) {
+        if (key == 0) {
+            zeroValue = hasZeroKey ? merge.applyAsLong(zeroValue, value) : value;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int i = find(key);
+        if (i < 0) {
+            insert(-i - 1, key, value);
+            return value;
+        }
+        return values[i] = merge.applyAsLong(values[i], value);
+    }
+
+    public boolean remove(long key) {
+        if (key == 0) {
+            boolean had = hasZeroKey;
+            hasZeroKey = false;
+            return had;
+        }
+        int i = find(key);
+        if (i < 0) return false;
+        closeGap(i);
+        size--;
+        return true;
+    }
+
+    // Same backward shift as IntHashSet.closeGap
+    private void closeGap(int gap) {
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            if (((j - slotOf(keys[j])) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == 0) continue;
+            int i = slotOf(oldKeys[j]);
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    public void forEach(EntryConsumer action) {
+        if (hasZeroKey) action.accept(0, zeroValue);
+        for (int i = 0; i < keys.length; i++) if (keys[i] != 0) action.accept(keys[i], values[i]);
+    }
+
+    public LongStream keys() {
+        LongStream tableKeys = Arrays.stream(keys).filter(key -> key != 0);
+        return hasZeroKey ? LongStream.concat(LongStream.of(0), tableKeys) : tableKeys;
+    }
+
+    // In the same order as keys()
+    public LongStream values() {
+        LongStream tableValues = IntStream.range(0, keys.length).filter(i -> keys[i] != 0).mapToLong(i -> values[i]);
+        return hasZeroKey ? LongStream.concat(LongStream.of(zeroValue), tableValues) : tableValues;
+    }
+
+    // In table order
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((key, value) -> joiner.add(key + "=" + value));
+        return joiner.toString();
+    }
+
+    public static void main(String[] args) {
+        LongLongHashMap squares = LongStream.rangeClosed(0, 5).boxed()
+                .collect(LongLongHashMap.collector(n -> n, n -> n * n, Long::sum));
+        System.out.println(squares.getOrDefault(4, -1) + " " + squares.getOrDefault(0, -1)
+                + " " + squares.getOrDefault(6, -1)); // 16 0 -1
+
+        LongLongHashMap buckets = LongLongHashMap.counting(LongStream.range(0, 10_000_000).parallel().map(n -> n % 1_000));
+        System.out.println(buckets.size() + " " + buckets.getOrDefault(999, 0) + " " + buckets.values().sum());
+        // 1000 10000 10000000
+
+        LongStream.range(0, 1_000).filter(n -> n % 2 == 1).forEach(buckets::remove);
+        System.out.println(buckets.size() + " " + buckets.keys().max().getAsLong()); // 500 998
+    }
+}
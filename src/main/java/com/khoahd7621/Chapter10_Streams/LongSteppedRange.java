@@ -0,0 +1,141 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// The arithmetic sequence start, start + step, start + 2 * step, ... with size elements.
+// Primitive, SIZED | SUBSIZED replacement for Stream.iterate(1L, n -> n < 100, n -> n + 2):
+// element i is start + i * step, so the spliterator splits in O(1) and parallel() really runs in parallel.
+// skip() and limit() are arithmetic on the range itself and never walk through elements.
+public record LongSteppedRange(long start, long step, long size) {
+
+    public LongSteppedRange {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        if (size < 0) throw new IllegalArgumentException("size must not be negative: " + size);
+        if (size > 1 && overflows(start, step, size - 1))
+            throw new IllegalArgumentException("last element does not fit in a long");
+    }
+
+    // start, start + step, ... while below bound (step > 0) or above bound (step < 0), bound excluded
+    public static LongSteppedRange of(long start, long step, long bound) {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        if (step > 0 ? start >= bound : start <= bound) return new LongSteppedRange(start, step, 0);
+        // bound - start always fits in an unsigned long, and so does |step|
+        long distance = step > 0 ? bound - start : start - bound;
+        long magnitude = step > 0 ? step : -step;
+        long lastIndex = Long.divideUnsigned(distance - 1, magnitude);
+        if (lastIndex < 0 || lastIndex == Long.MAX_VALUE)
+            throw new IllegalArgumentException("more than Long.MAX_VALUE elements");
+        return new LongSteppedRange(start, step, lastIndex + 1);
+    }
+
+    // Like Stream.iterate(start, n -> n + step), stopping before the long overflows: every value up to and
+    // including the last one that fits (Long.MAX_VALUE itself for step 1). The size is a long, so a range
+    // that would have more elements, such as from(-1, 1), is capped at the first Long.MAX_VALUE of them.
+    public static LongSteppedRange from(long start, long step) {
+        if (step == 0) throw new IllegalArgumentException("step must not be 0");
+        // Long.MAX_VALUE - start (or start - Long.MIN_VALUE) always fits in an unsigned long, and so does |step|
+        long distance = step > 0 ? Long.MAX_VALUE - start : start - Long.MIN_VALUE;
+        long magnitude = step > 0 ? step : -step;
+        long lastIndex = Long.divideUnsigned(distance, magnitude);
+        long size = lastIndex < 0 || lastIndex == Long.MAX_VALUE ? Long.MAX_VALUE : lastIndex + 1;
+        return new LongSteppedRange(start, step, size);
+    }
+
+    private static boolean overflows(long start, long step, long index) {
+        try {
+            Math.addExact(start, Math.multiplyExact(step, index));
+            return false;
+        } catch (ArithmeticException e) {
+            return true;
+        }
+    }
+
+    public long get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return start + index * step;
+    }
+
+    public LongSteppedRange skip(long n) {
+        if (n < 0) throw new IllegalArgumentException("n must not be negative: " + n);
+        if (n >= size) return new LongSteppedRange(start, step, 0);
+        return new LongSteppedRange(start + n * step, step, size - n);
+    }
+
+    public LongSteppedRange limit(long maxSize) {
+        if (maxSize < 0) throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+        return maxSize >= size ? this : new LongSteppedRange(start, step, maxSize);
+    }
+
+    public LongStream stream() {
+        return StreamSupport.longStream(new RangeSpliterator(start, step, 0, size), false);
+    }
+
+    public LongStream parallelStream() {
+        return StreamSupport.longStream(new RangeSpliterator(start, step, 0, size), true);
+    }
+
+    private static final class RangeSpliterator implements Spliterator.OfLong {
+        private final long start;
+        private final long step;
+        private long index;
+        private final long fence;
+
+        RangeSpliterator(long start, long step, long index, long fence) {
+            this.start = start;
+            this.step = step;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public OfLong trySplit() {
+            long lo = index, mid = lo + ((fence - lo) >>> 1);
+            return lo >= mid ? null : new RangeSpliterator(start, step, lo, index = mid);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= fence) return false;
+            action.accept(start + index++ * step);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long i = index, end = fence, value = start + i * step;
+            index = end;
+            for (; i < end; i++, value += step) action.accept(value);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL | DISTINCT | (step > 0 ? SORTED : 0);
+        }
+
+        @Override
+        public Comparator<? super Long> getComparator() {
+            if (step > 0) return null;
+            throw new IllegalStateException();
+        }
+    }
+
+    public static void main(String[] args) {
+        var oddNumbersUnder100 = LongSteppedRange.of(1, 2, 100);
+        System.out.println(oddNumbersUnder100.size());               // 50
+        System.out.println(oddNumbersUnder100.stream().sum());       // 2500
+        System.out.println(oddNumbersUnder100.skip(5).limit(2));     // LongSteppedRange[start=11, step=2, size=2]
+        System.out.println(LongSteppedRange.of(10, -3, 0).stream().boxed().toList()); // [10, 7, 4, 1]
+
+        var big = LongSteppedRange.from(1, 2).limit(100_000_000);
+        System.out.println(big.parallelStream().sum()); // 10000000000000000
+    }
+}
@@ -0,0 +1,278 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// A file as a stream of lines, like Files.lines(path), but read through memory-mapped windows.
+// ■ Files.lines decodes the whole file sequentially through one BufferedReader, and its parallel
+//   streams split on batches handed out one after another.
+// ■ Here the file is mapped in windows of up to windowBytes, each ending right after a '\n',
+//   so no line crosses a window. The spliterator splits a byte range at its middle, moved forward
+//   to the next line start, so parallel streams get balanced chunks from the start.
+// ■ Lines are CharSequence views over the mapped bytes: nothing is decoded or copied until
+//   charAt/length/toString is called. An all-ASCII line is read straight from the mapping;
+//   any other line is decoded as UTF-8 once, on first use.
+// Lines end at '\n' or "\r\n" (not at a lone '\r'). Views stay valid after close(): the mapping
+// lives until the buffers are garbage collected.
+public class MappedLines implements AutoCloseable {
+
+    static final int DEFAULT_WINDOW = 1 << 30;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] windows;
+    private final long[] windowStarts; // file offset of each window
+    private final long size;
+
+    private MappedLines(Path file, int windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        List<MappedByteBuffer> mapped = new ArrayList<>();
+        List<Long> starts = new ArrayList<>();
+        long position = 0;
+        while (position < size) {
+            long length = Math.min(windowBytes, size - position);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            if (position + length < size) {
+                // Cut after the last '\n' so the next window starts on a line
+                int end = (int) length;
+                while (end > 0 && window.get(end - 1) != '\n') end--;
+                if (end == 0) throw new IOException("line longer than " + windowBytes + " bytes at offset " + position);
+                if (end < length) window = channel.map(FileChannel.MapMode.READ_ONLY, position, end);
+                length = end;
+            }
+            mapped.add(window);
+            starts.add(position);
+            position += length;
+        }
+        this.windows = mapped.toArray(MappedByteBuffer[]::new);
+        this.windowStarts = starts.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public static MappedLines open(Path file) throws IOException {
+        return new MappedLines(file, DEFAULT_WINDOW);
+    }
+
+    public static MappedLines open(Path file, int windowBytes) throws IOException {
+        if (windowBytes <= 0) throw new IllegalArgumentException("windowBytes must be positive: " + windowBytes);
+        return new MappedLines(file, windowBytes);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public Stream<CharSequence> lines() {
+        return StreamSupport.stream(new LineSpliterator(0, size), false);
+    }
+
+    public Stream<CharSequence> parallelLines() {
+        return lines().parallel();
+    }
+
+    // Decoded copies, for code that needs String keys or keeps the lines
+    public Stream<String> strings() {
+        return lines().map(CharSequence::toString);
+    }
+
+    // Number of lines without creating a view per line
+    public long count() {
+        long lines = 0;
+        for (MappedByteBuffer window : windows) {
+            int limit = window.limit();
+            for (int i = 0; i < limit; i++) if (window.get(i) == '\n') lines++;
+        }
+        // A last line without '\n'
+        if (size > 0 && windows[windows.length - 1].get(windows[windows.length - 1].limit() - 1) != '\n') lines++;
+        return lines;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int windowOf(long offset) {
+        int lo = 0, hi = windowStarts.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (windowStarts[mid] <= offset) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    private final class LineSpliterator implements Spliterator<CharSequence> {
+        private long from;
+        private final long to;
+
+        LineSpliterator(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super CharSequence> action) {
+            if (from >= to) return false;
+            int w = windowOf(from);
+            MappedByteBuffer window = windows[w];
+            int start = (int) (from - windowStarts[w]);
+            int limit = window.limit();
+            int end = start;
+            while (end < limit && window.get(end) != '\n') end++;
+            from = windowStarts[w] + Math.min(end + 1, limit);
+            int lineEnd = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+            action.accept(new Line(window, start, lineEnd));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super CharSequence> action) {
+            while (from < to) {
+                int w = windowOf(from);
+                MappedByteBuffer window = windows[w];
+                long windowStart = windowStarts[w];
+                int start = (int) (from - windowStart);
+                int stop = (int) Math.min(to - windowStart, window.limit());
+                while (start < stop) {
+                    int end = start;
+                    while (end < stop && window.get(end) != '\n') end++;
+                    int lineEnd = end > start && window.get(end - 1) == '\r' ? end - 1 : end;
+                    action.accept(new Line(window, start, lineEnd));
+                    start = end + 1;
+                }
+                from = windowStart + stop;
+            }
+        }
+
+        // Middle of the range, moved to just after the next '\n' (or to the end of that window)
+        @Override
+        public Spliterator<CharSequence> trySplit() {
+            long middle = from + (to - from) / 2;
+            if (to - from < 2 * 1024) return null;
+            int w = windowOf(middle);
+            MappedByteBuffer window = windows[w];
+            int i = (int) (middle - windowStarts[w]);
+            int limit = window.limit();
+            while (i < limit && window.get(i) != '\n') i++;
+            long split = windowStarts[w] + Math.min(i + 1, limit);
+            if (split >= to) return null;
+            var prefix = new LineSpliterator(from, split);
+            from = split;
+            return prefix;
+        }
+
+        // Bytes, not lines: the line count is not known without scanning
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    // One line of the mapping: bytes [start, end) of window, decoded on first use unless all ASCII
+    static final class Line implements CharSequence {
+        private final MappedByteBuffer window;
+        private final int start;
+        private final int end;
+        private String decoded;  // only for lines with non-ASCII bytes
+        private byte ascii = -1; // -1 unknown, 1 all ASCII, 0 not
+
+        Line(MappedByteBuffer window, int start, int end) {
+            this.window = window;
+            this.start = start;
+            this.end = end;
+        }
+
+        // A slice of an all-ASCII line is all ASCII too
+        private Line(Line line, int from, int to) {
+            this(line.window, line.start + from, line.start + to);
+            this.ascii = 1;
+        }
+
+        private boolean isAscii() {
+            if (ascii < 0) {
+                ascii = 1;
+                for (int i = start; i < end; i++) {
+                    if (window.get(i) < 0) {
+                        ascii = 0;
+                        break;
+                    }
+                }
+            }
+            return ascii == 1;
+        }
+
+        private String decode() {
+            if (decoded == null) {
+                byte[] bytes = new byte[end - start];
+                window.get(start, bytes);
+                decoded = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return decoded;
+        }
+
+        @Override
+        public int length() {
+            return isAscii() ? end - start : decode().length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (!isAscii()) return decode().charAt(index);
+            if (index < 0 || index >= end - start) throw new StringIndexOutOfBoundsException(index);
+            return (char) window.get(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (!isAscii()) return decode().subSequence(from, to);
+            if (from < 0 || to > end - start || from > to) throw new StringIndexOutOfBoundsException(from);
+            return new Line(this, from, to);
+        }
+
+        @Override
+        public String toString() {
+            if (!isAscii()) return decode();
+            byte[] bytes = new byte[end - start];
+            window.get(start, bytes);
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Files.createTempFile("mapped-lines", ".csv");
+        try {
+            Files.writeString(file, "duck,swims\ngoose,honks\r\nswan,glides\nduck,quacks\ncafé,serves");
+            try (MappedLines lines = MappedLines.open(file)) {
+                System.out.println(lines.count()); // 5
+                System.out.println(lines.lines().filter(l -> l.charAt(0) == 'd').count()); // 2
+
+                Map<String, Long> byAnimal = lines.parallelLines()
+                        .collect(Collectors.groupingBy(l -> l.toString().split(",")[0], Collectors.counting()));
+                System.out.println(byAnimal); // {café=1, duck=2, goose=1, swan=1} (in some order)
+
+                System.out.println(lines.strings().toList());
+                // [duck,swims, goose,honks, swan,glides, duck,quacks, café,serves]
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.IntBinaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Map<K, Integer> as two parallel arrays, keys and int values, with open addressing and linear probing
+// as in IntHashSet. A HashMap<String, Integer> entry is a 32-byte node plus a 16-byte Integer;
+// here it is one reference and one int, and counting with addTo(key, 1) boxes nothing,
+// unlike merge(key, 1, Integer::sum).
+// ■ a null slot is empty, so null keys are not allowed
+// ■ keys are placed by Fibonacci hashing of hashCode()
+// ■ keys() and values() are streams over the entries; collector and counting build one from a stream
+// Not thread-safe.
+public class ObjectIntHashMap<K> {
+
+    private Object[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int maxFill;
+    private int size;
+
+    public ObjectIntHashMap() {
+        this(8);
+    }
+
+    // Room for expectedSize entries without growing
+    public ObjectIntHashMap(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("negative size: " + expectedSize);
+        allocate(IntHashSet.tableSizeFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+        maxFill = capacity - (capacity >> 2);
+    }
+
+    // Like Collectors.toMap(key, value, merge), with int values
+    public static <T, K> Collector<T, ?, ObjectIntHashMap<K>> collector(
+            Function<? super T, ? extends K> key, ToIntFunction<? super T> value, IntBinaryOperator merge) {
+        return Collector.of(
+                ObjectIntHashMap::new,
+                (map, element) -> map.merge(key.apply(element), value.applyAsInt(element), merge),
+                (left, right) -> {
+                    right.forEach((k, v) -> left.merge(k, v, merge));
+                    return left;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    // Like Collectors.groupingBy(key, Collectors.counting()), without a Long per group
+    public static <T, K> Collector<T, ?, ObjectIntHashMap<K>> counting(Function<? super T, ? extends K> key) {
+        return collector(key, element -> 1, Integer::sum);
+    }
+
+    private int slotOf(Object key) {
+        return (key.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    // Slot holding key, or -(empty slot where it would go) - 1
+    private int find(Object key) {
+        Objects.requireNonNull(key, "key");
+        int i = slotOf(key);
+        for (Object current; (current = keys[i]) != null; i = (i + 1) & mask)
+            if (current.equals(key)) return i;
+        return -i - 1;
+    }
+
+    private void insert(int emptySlot, K key, int value) {
+        IntHashSet.ensureRoom(size, "ObjectIntHashMap");
+        keys[emptySlot] = key;
+        values[emptySlot] = value;
+        if (++size > maxFill) rehash(keys.length << 1);
+    }
+
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    public int getOrDefault(Object key, int defaultValue) {
+        int i = find(key);
+        return i >= 0 ? values[i] : defaultValue;
+    }
+
+    // Returns the previous value, or defaultValue if there was none
+    public int put(K key, int value, int defaultValue) {
+        int i = find(key);
+        if (i < 0) {
+            insert(-i - 1, key, value);
+            return defaultValue;
+        }
+        int old = values[i];
+        values[i] = value;
+        return old;
+    }
+
+    public void put(K key, int value) {
+        put(key, value, 0);
+    }
+
+    // Adds delta to the key's value (0 if absent) and returns the new value
+    public int addTo(K key, int delta) {
+        return merge(key, delta, Integer::sum);
+    }
+
+    // Like Map.merge: value if the key is absent, merge(old, value) otherwise; returns the new value
+    public int merge(K key, int value, IntBinaryOperator merge) {
+        int i = find(key);
+        if (i < 0) {
+            insert(-i - 1, key, value);
+            return value;
+        }
+        return values[i] = merge.applyAsInt(values[i], value);
+    }
+
+    public boolean remove(Object key) {
+        int i = find(key);
+        if (i < 0) return false;
+        closeGap(i);
+        size--;
+        return true;
+    }
+
+    // Same backward shift as IntHashSet.closeGap
+    private void closeGap(int gap) {
+        for (int j = (gap + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            if (((j - slotOf(keys[j])) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = null;
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == null) continue;
+            int i = slotOf(oldKeys[j]);
+            while (keys[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(ObjIntConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) if (keys[i] != null) action.accept((K) keys[i], values[i]);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Stream<K> keys() {
+        return Arrays.stream(keys).filter(Objects::nonNull).map(key -> (K) key);
+    }
+
+    // In the same order as keys()
+    public IntStream values() {
+        return IntStream.range(0, keys.length).filter(i -> keys[i] != null).map(i -> values[i]);
+    }
+
+    // In table order
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        forEach((key, value) -> joiner.add(key + "=" + value));
+        return joiner.toString();
+    }
+
+    public static void main(String[] args) {
+        // groupingBy(String::length, counting()) from "Collecting Results", with the words as keys
+        ObjectIntHashMap<String> counts = Stream.of("lions", "tigers", "bears", "lions", "lions")
+                .collect(ObjectIntHashMap.counting(Function.identity()));
+        System.out.println(counts.getOrDefault("lions", 0) + " " + counts.getOrDefault("bears", 0)
+                + " " + counts.getOrDefault("ducks", 0)); // 3 1 0
+
+        ObjectIntHashMap<String> lengths = Stream.of("monkey", "gorilla", "bonobo")
+                .collect(ObjectIntHashMap.collector(Function.identity(), String::length, (a, b) -> a));
+        System.out.println(lengths.values().sum()); // 19
+
+        ObjectIntHashMap<String> big = IntStream.range(0, 1_000_000).parallel().mapToObj(i -> "key" + i % 10_000)
+                .collect(ObjectIntHashMap.counting(Function.identity()));
+        System.out.println(big.size() + " " + big.getOrDefault("key42", 0)); // 10000 100
+        big.keys().filter(key -> !key.endsWith("0")).toList().forEach(big::remove);
+        System.out.println(big.size() + " " + big.values().max().getAsInt()); // 1000 100
+    }
+}
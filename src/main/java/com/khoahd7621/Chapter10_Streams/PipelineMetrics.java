@@ -0,0 +1,351 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Per-stage metrics for Stream pipelines, instead of peek(System.out::println).
+//
+// Each named stage wraps the function you would have passed to the stream anyway:
+//   stream.filter(metrics.filter("startsWithG", u -> u.startsWith("g")))
+//         .map(metrics.map("upper", String::toUpperCase))
+// ■ filter/map record elements in, elements out and nanoseconds spent inside the function
+// ■ tap(name, stream) counts what flows past that point, how often the stream was split for
+//   parallel work, and how many traversals stopped before their input ran out (short-circuits)
+// ■ collector(name, collector) counts accumulations and parallel combines
+// All counters are LongAdders, so recording never takes a lock.
+//
+// PipelineMetrics.disabled() hands every function back unchanged, so a pipeline built against
+// disabled metrics runs exactly as if it were not instrumented. The one exception is peek(name):
+// there is no function to hand back, so the peek stage stays, running a shared no-op consumer.
+// snapshot() returns the current counters; emitJfrEvents() commits one JFR event per stage.
+//
+// tap(name, stream) never reports SIZED, because a SIZED source lets count() skip traversal entirely
+// and the tap would then record nothing.
+public class PipelineMetrics {
+
+    private static final PipelineMetrics DISABLED = new PipelineMetrics("disabled", false);
+    private static final Consumer<Object> NO_OP = value -> { };
+
+    private final String pipeline;
+    private final boolean enabled;
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    private PipelineMetrics(String pipeline, boolean enabled) {
+        this.pipeline = pipeline;
+        this.enabled = enabled;
+    }
+
+    public static PipelineMetrics enabled(String pipeline) {
+        return new PipelineMetrics(pipeline, true);
+    }
+
+    public static PipelineMetrics disabled() {
+        return DISABLED;
+    }
+
+    // Enabled when the system property pipeline.metrics is "true"
+    public static PipelineMetrics fromSystemProperty(String pipeline) {
+        return Boolean.getBoolean("pipeline.metrics") ? enabled(pipeline) : disabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    static final class Stage {
+        final String name;
+        final int order;
+        final LongAdder in = new LongAdder();
+        final LongAdder out = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final LongAdder splits = new LongAdder();
+        final LongAdder combines = new LongAdder();
+        final LongAdder traversals = new LongAdder();
+        final LongAdder exhausted = new LongAdder();
+
+        Stage(String name, int order) {
+            this.name = name;
+            this.order = order;
+        }
+    }
+
+    private Stage stage(String name) {
+        return stages.computeIfAbsent(name, n -> new Stage(n, stages.size()));
+    }
+
+    public <T> Predicate<T> filter(String name, Predicate<T> predicate) {
+        if (!enabled) return predicate;
+        Stage stage = stage(name);
+        return value -> {
+            long start = System.nanoTime();
+            boolean pass = predicate.test(value);
+            stage.nanos.add(System.nanoTime() - start);
+            stage.in.increment();
+            if (pass) stage.out.increment();
+            return pass;
+        };
+    }
+
+    public <T, R> Function<T, R> map(String name, Function<T, R> mapper) {
+        if (!enabled) return mapper;
+        Stage stage = stage(name);
+        return value -> {
+            long start = System.nanoTime();
+            R result = mapper.apply(value);
+            stage.nanos.add(System.nanoTime() - start);
+            stage.in.increment();
+            stage.out.increment();
+            return result;
+        };
+    }
+
+    // Replacement for peek(System.out::println): counts the elements going by.
+    // When disabled the peek stage itself remains, with the shared NO_OP consumer.
+    @SuppressWarnings("unchecked")
+    public <T> Consumer<T> peek(String name) {
+        if (!enabled) return (Consumer<T>) NO_OP;
+        Stage stage = stage(name);
+        return value -> {
+            stage.in.increment();
+            stage.out.increment();
+        };
+    }
+
+    // Re-sources the stream through a counting spliterator. Must be followed by more operations,
+    // since it ends the current pipeline the way stream.spliterator() does.
+    public <T> Stream<T> tap(String name, Stream<T> stream) {
+        if (!enabled) return stream;
+        Stage stage = stage(name);
+        return StreamSupport.stream(new TapSpliterator<>(stream.spliterator(), stage), stream.isParallel())
+                .onClose(stream::close);
+    }
+
+    public <T, A, R> Collector<T, A, R> collector(String name, Collector<T, A, R> collector) {
+        if (!enabled) return collector;
+        Stage stage = stage(name);
+        BiConsumer<A, T> accumulator = collector.accumulator();
+        BinaryOperator<A> combiner = collector.combiner();
+        Supplier<A> supplier = collector.supplier();
+        return Collector.of(
+                supplier,
+                (container, value) -> {
+                    stage.in.increment();
+                    accumulator.accept(container, value);
+                },
+                (left, right) -> {
+                    stage.combines.increment();
+                    return combiner.apply(left, right);
+                },
+                container -> {
+                    R result = collector.finisher().apply(container);
+                    stage.out.increment();
+                    return result;
+                },
+                // IDENTITY_FINISH is dropped so the finisher (and the out counter) always runs
+                collector.characteristics().stream()
+                        .filter(c -> c != Collector.Characteristics.IDENTITY_FINISH)
+                        .toArray(Collector.Characteristics[]::new));
+    }
+
+    private static final class TapSpliterator<T> implements Spliterator<T> {
+        private final Spliterator<T> source;
+        private final Stage stage;
+        private boolean started;
+        private boolean done;
+
+        TapSpliterator(Spliterator<T> source, Stage stage) {
+            this.source = source;
+            this.stage = stage;
+        }
+
+        private void start() {
+            if (!started) {
+                started = true;
+                stage.traversals.increment();
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            start();
+            boolean advanced = source.tryAdvance(value -> {
+                stage.in.increment();
+                stage.out.increment();
+                action.accept(value);
+            });
+            if (!advanced && !done) {
+                done = true;
+                stage.exhausted.increment();
+            }
+            return advanced;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            start();
+            long[] seen = { 0 };
+            source.forEachRemaining(value -> {
+                seen[0]++;
+                action.accept(value);
+            });
+            stage.in.add(seen[0]);
+            stage.out.add(seen[0]);
+            if (!done) {
+                done = true;
+                stage.exhausted.increment();
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<T> prefix = source.trySplit();
+            if (prefix == null) return null;
+            stage.splits.increment();
+            return new TapSpliterator<>(prefix, stage);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        // Not SIZED, otherwise count() may skip traversal and the tap sees no elements
+        @Override
+        public int characteristics() {
+            return source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    public record StageSnapshot(String name, long in, long out, long nanos, long splits, long combines,
+                                long traversals, long shortCircuits) {
+        @Override
+        public String toString() {
+            return String.format("%-16s in=%d out=%d time=%.3fms splits=%d combines=%d short-circuits=%d",
+                    name, in, out, nanos / 1e6, splits, combines, shortCircuits);
+        }
+    }
+
+    public record Snapshot(String pipeline, List<StageSnapshot> stages) {
+        @Override
+        public String toString() {
+            var sb = new StringBuilder(pipeline);
+            for (StageSnapshot stage : stages) sb.append(System.lineSeparator()).append("  ").append(stage);
+            return sb.toString();
+        }
+    }
+
+    // Counters are read one by one, so a snapshot taken while the pipeline runs is approximate
+    public Snapshot snapshot() {
+        List<Stage> ordered = new ArrayList<>(stages.values());
+        ordered.sort((a, b) -> Integer.compare(a.order, b.order));
+        List<StageSnapshot> result = new ArrayList<>(ordered.size());
+        for (Stage stage : ordered) {
+            long traversals = stage.traversals.sum();
+            result.add(new StageSnapshot(stage.name, stage.in.sum(), stage.out.sum(), stage.nanos.sum(),
+                    stage.splits.sum(), stage.combines.sum(), traversals,
+                    Math.max(0, traversals - stage.exhausted.sum())));
+        }
+        return new Snapshot(pipeline, List.copyOf(result));
+    }
+
+    public void reset() {
+        stages.clear();
+    }
+
+    @Name("com.khoahd7621.PipelineStage")
+    @Label("Stream Pipeline Stage")
+    @Category("Streams")
+    @Description("Counters of one named stage of an instrumented stream pipeline")
+    static class StageEvent extends Event {
+        @Label("Pipeline")
+        String pipeline;
+        @Label("Stage")
+        String stage;
+        @Label("Elements In")
+        long in;
+        @Label("Elements Out")
+        long out;
+        @Label("Time In Stage")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+        @Label("Splits")
+        long splits;
+        @Label("Combines")
+        long combines;
+        @Label("Short-Circuits")
+        long shortCircuits;
+    }
+
+    // Commits one event per stage; nothing is done when recording of the event is off
+    public void emitJfrEvents() {
+        if (!enabled) return;
+        for (StageSnapshot stage : snapshot().stages()) {
+            var event = new StageEvent();
+            if (!event.isEnabled()) return;
+            event.pipeline = pipeline;
+            event.stage = stage.name();
+            event.in = stage.in();
+            event.out = stage.out();
+            event.nanos = stage.nanos();
+            event.splits = stage.splits();
+            event.combines = stage.combines();
+            event.shortCircuits = stage.shortCircuits();
+            event.commit();
+        }
+    }
+
+    public static void main(String[] args) {
+        // The peek() example from CommonIntermediateOperations, instrumented instead of printed
+        var metrics = PipelineMetrics.enabled("bears");
+        var stream = Stream.of("black bear", "brown bear", "grizzly");
+        long count = metrics.tap("source", stream)
+                .filter(metrics.filter("startsWithG", u -> u.startsWith("g")))
+                .peek(metrics.peek("afterFilter"))
+                .count();
+        System.out.println(count); // 1
+        System.out.println(metrics.snapshot());
+
+        // findFirst() stops pulling early, which shows up as a short-circuit at the tap
+        var firstMetrics = PipelineMetrics.enabled("first");
+        firstMetrics.tap("source", Stream.iterate(1, n -> n + 1).limit(1_000))
+                .map(firstMetrics.map("square", n -> n * n))
+                .filter(n -> n > 50)
+                .findFirst()
+                .ifPresent(System.out::println); // 64
+        System.out.println(firstMetrics.snapshot());
+
+        // Parallel runs report splits and combines
+        var parallelMetrics = PipelineMetrics.enabled("parallel");
+        var words = parallelMetrics.tap("source", Stream.of("w", "o", "l", "f").parallel())
+                .collect(parallelMetrics.collector("toList", Collectors.toList()));
+        System.out.println(words); // [w, o, l, f]
+        System.out.println(parallelMetrics.snapshot());
+    }
+}
@@ -0,0 +1,117 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+// Primitive counterpart of ReturningAnOptional.average(int...).
+// ■ The running total is a long, so int scores can never overflow it (2^31 * 2^31 < 2^63).
+// ■ Results are OptionalDouble (or a plain double with a fallback) instead of Optional<Double>,
+//   so no Double is boxed on each call.
+public class PrimitiveAverages {
+
+    // Below this many elements the parallel path just runs the sequential loop.
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private PrimitiveAverages() {
+    }
+
+    public static OptionalDouble average(int... scores) {
+        return average(scores, 0, scores.length);
+    }
+
+    // Average of scores[from, to)
+    public static OptionalDouble average(int[] scores, int from, int to) {
+        Objects.checkFromToIndex(from, to, scores.length);
+        if (from == to) return OptionalDouble.empty();
+        return OptionalDouble.of((double) sum(scores, from, to) / (to - from));
+    }
+
+    // Same as average(int...) but never allocates: an empty array gives back orElse
+    public static double averageOrElse(double orElse, int... scores) {
+        return averageOrElse(orElse, scores, 0, scores.length);
+    }
+
+    public static double averageOrElse(double orElse, int[] scores, int from, int to) {
+        Objects.checkFromToIndex(from, to, scores.length);
+        if (from == to) return orElse;
+        return (double) sum(scores, from, to) / (to - from);
+    }
+
+    // One pass over the stream, keeping { sum, count } in a long[2]. Works for parallel streams too.
+    public static OptionalDouble average(IntStream scores) {
+        long[] sumAndCount = scores.collect(
+                () -> new long[2],
+                (acc, score) -> {
+                    acc[0] += score;
+                    acc[1]++;
+                },
+                (left, right) -> {
+                    left[0] += right[0];
+                    left[1] += right[1];
+                });
+        if (sumAndCount[1] == 0) return OptionalDouble.empty();
+        return OptionalDouble.of((double) sumAndCount[0] / sumAndCount[1]);
+    }
+
+    // Split-and-combine on the common pool for very large arrays
+    public static OptionalDouble parallelAverage(int... scores) {
+        return parallelAverage(scores, 0, scores.length);
+    }
+
+    public static OptionalDouble parallelAverage(int[] scores, int from, int to) {
+        Objects.checkFromToIndex(from, to, scores.length);
+        if (from == to) return OptionalDouble.empty();
+        long sum = to - from <= PARALLEL_THRESHOLD
+                ? sum(scores, from, to)
+                : ForkJoinPool.commonPool().invoke(new SumTask(scores, from, to));
+        return OptionalDouble.of((double) sum / (to - from));
+    }
+
+    static long sum(int[] scores, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) sum += scores[i];
+        return sum;
+    }
+
+    private static class SumTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] scores;
+        private final int from;
+        private final int to;
+
+        SumTask(int[] scores, int from, int to) {
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= PARALLEL_THRESHOLD) return sum(scores, from, to);
+            int mid = (from + to) >>> 1;
+            SumTask left = new SumTask(scores, from, mid);
+            left.fork();
+            long right = new SumTask(scores, mid, to).compute();
+            return right + left.join();
+        }
+    }
+
+    public static void main(String[] args) {
+        System.out.println(average(90, 100));          // OptionalDouble[95.0]
+        System.out.println(average());                  // OptionalDouble.empty
+        System.out.println(averageOrElse(Double.NaN));  // NaN
+
+        // ReturningAnOptional.average keeps an int total that wraps around here, the long total does not
+        int[] big = { Integer.MAX_VALUE, Integer.MAX_VALUE };
+        System.out.println(average(big).getAsDouble()); // 2.147483647E9
+
+        int[] scores = { 10, 20, 30, 40, 50 };
+        System.out.println(average(scores, 1, 4));              // OptionalDouble[30.0]
+        System.out.println(average(IntStream.of(scores)));      // OptionalDouble[30.0]
+        System.out.println(parallelAverage(IntStream.rangeClosed(1, 1_000_000).toArray())); // OptionalDouble[500000.5]
+    }
+}
@@ -0,0 +1,118 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+
+// Immutable SortedSet over a sorted, duplicate-free array.
+// contains() is a binary search and subSet/headSet/tailSet are O(log n) views over the same array.
+// comparator() is null for natural ordering, like TreeSet, so new TreeSet<>(sortedArraySet)
+// recognises the input as already sorted and builds its tree in linear time.
+public class SortedArraySet<E> extends AbstractSet<E> implements SortedSet<E> {
+
+    private final Object[] elements;
+    private final int from;
+    private final int to;
+    private final Comparator<? super E> comparator;
+
+    // elements[from, to) must already be sorted by comparator (natural ordering if null) without duplicates
+    SortedArraySet(Object[] elements, int from, int to, Comparator<? super E> comparator) {
+        this.elements = elements;
+        this.from = from;
+        this.to = to;
+        this.comparator = comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(Object a, Object b) {
+        return comparator == null
+                ? ((Comparable<Object>) a).compareTo(b)
+                : comparator.compare((E) a, (E) b);
+    }
+
+    // Index of the first element >= key within [from, to)
+    private int lowerBound(Object key) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(elements[mid], key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o == null) return false;
+        int i = lowerBound(o);
+        return i < to && compare(elements[i], o) == 0;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (next >= to) throw new NoSuchElementException();
+                return (E) elements[next++];
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        if (compare(fromElement, toElement) > 0) throw new IllegalArgumentException("fromElement > toElement");
+        int lo = lowerBound(fromElement);
+        return new SortedArraySet<>(elements, lo, Math.max(lo, lowerBound(toElement)), comparator);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return new SortedArraySet<>(elements, from, lowerBound(toElement), comparator);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return new SortedArraySet<>(elements, lowerBound(fromElement), to, comparator);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E first() {
+        if (from == to) throw new NoSuchElementException();
+        return (E) elements[from];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E last() {
+        if (from == to) throw new NoSuchElementException();
+        return (E) elements[to - 1];
+    }
+}
@@ -0,0 +1,136 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+// Parallel-friendly replacements for collect(TreeSet::new, TreeSet::add, TreeSet::addAll)
+// and collect(Collectors.toCollection(TreeSet::new)).
+// With TreeSet::addAll as the combiner, every merge level re-inserts the right-hand set one
+// element at a time: O(n log² n) comparisons and a new tree node per insert.
+//
+// Here each chunk only appends to a plain array. A chunk is sorted (and deduplicated) the first time
+// it takes part in a combine, so that work happens on the parallel workers, and two sorted chunks are
+// merged in one linear pass. The finished array becomes either
+// ■ toTreeSet():        a TreeSet, built once in linear time from the sorted input, or
+// ■ toSortedArraySet(): an immutable array-backed SortedSet, with no tree nodes at all.
+// As with TreeSet, elements that compare as equal are kept only once (the first one met).
+public class SortedSetCollectors {
+
+    private SortedSetCollectors() {
+    }
+
+    public static <T extends Comparable<? super T>> Collector<T, ?, NavigableSet<T>> toTreeSet() {
+        return toTreeSet(null);
+    }
+
+    public static <T> Collector<T, ?, NavigableSet<T>> toTreeSet(Comparator<? super T> comparator) {
+        return Collector.of(
+                () -> new Chunk<T>(comparator),
+                Chunk::add,
+                Chunk::merge,
+                chunk -> {
+                    NavigableSet<T> set = new TreeSet<>(comparator);
+                    set.addAll(chunk.toSortedSet()); // TreeSet.addAll uses buildFromSorted for a SortedSet
+                    return set;
+                });
+    }
+
+    public static <T extends Comparable<? super T>> Collector<T, ?, SortedSet<T>> toSortedArraySet() {
+        return toSortedArraySet(null);
+    }
+
+    public static <T> Collector<T, ?, SortedSet<T>> toSortedArraySet(Comparator<? super T> comparator) {
+        return Collector.of(
+                () -> new Chunk<T>(comparator),
+                Chunk::add,
+                Chunk::merge,
+                Chunk::toSortedSet);
+    }
+
+    static final class Chunk<T> {
+        private final Comparator<? super T> comparator;
+        private Object[] items = new Object[8];
+        private int size;
+        private boolean sorted = true;
+
+        Chunk(Comparator<? super T> comparator) {
+            this.comparator = comparator;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(Object a, Object b) {
+            return comparator == null
+                    ? ((Comparable<Object>) a).compareTo(b)
+                    : comparator.compare((T) a, (T) b);
+        }
+
+        void add(T value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            if (comparator == null) Objects.requireNonNull(value); // natural ordering rejects null, like TreeSet
+            if (size > 0) sorted = false;
+            items[size++] = value;
+        }
+
+        // Stable sort, then keep the first of every run of equal elements
+        private void sortAndDeduplicate() {
+            if (sorted) return;
+            Arrays.sort(items, 0, size, this::compare);
+            int kept = size == 0 ? 0 : 1;
+            for (int i = 1; i < size; i++)
+                if (compare(items[kept - 1], items[i]) != 0) items[kept++] = items[i];
+            Arrays.fill(items, kept, size, null);
+            size = kept;
+            sorted = true;
+        }
+
+        // Linear merge of two sorted, duplicate-free chunks; on ties the left (earlier) element wins
+        Chunk<T> merge(Chunk<T> right) {
+            sortAndDeduplicate();
+            right.sortAndDeduplicate();
+            if (right.size == 0) return this;
+            if (size == 0) return right;
+            Object[] merged = new Object[size + right.size];
+            int i = 0, j = 0, k = 0;
+            while (i < size && j < right.size) {
+                int c = compare(items[i], right.items[j]);
+                if (c < 0) merged[k++] = items[i++];
+                else if (c > 0) merged[k++] = right.items[j++];
+                else {
+                    merged[k++] = items[i++];
+                    j++;
+                }
+            }
+            while (i < size) merged[k++] = items[i++];
+            while (j < right.size) merged[k++] = right.items[j++];
+            items = merged;
+            size = k;
+            return this;
+        }
+
+        SortedSet<T> toSortedSet() {
+            sortAndDeduplicate();
+            Object[] exact = size == items.length ? items : Arrays.copyOf(items, size);
+            return new SortedArraySet<>(exact, 0, size, comparator);
+        }
+    }
+
+    public static void main(String[] args) {
+        NavigableSet<String> set = Stream.of("w", "o", "l", "f").collect(toTreeSet());
+        System.out.println(set); // [f, l, o, w]
+
+        SortedSet<String> arraySet = Stream.of("w", "o", "l", "f", "w").parallel().collect(toSortedArraySet());
+        System.out.println(arraySet);                // [f, l, o, w]
+        System.out.println(arraySet.contains("o"));  // true
+        System.out.println(arraySet.headSet("o"));   // [f, l]
+
+        NavigableSet<String> reversed = Stream.of("w", "o", "l", "f").parallel()
+                .collect(toTreeSet(Comparator.reverseOrder()));
+        System.out.println(reversed); // [w, o, l, f]
+    }
+}
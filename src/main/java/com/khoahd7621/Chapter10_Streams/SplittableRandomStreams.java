@@ -0,0 +1,158 @@
+package com.khoahd7621.Chapter10_Streams;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+// Contention-free replacement for Stream.generate(Math::random).
+// Math.random() shares one Random, so every parallel worker spins on the CAS of the same seed.
+//
+// These sources use the SplitMix64 generator behind SplittableRandom, but compute element i directly
+// from (seed, i) instead of advancing shared state. That means:
+// ■ a spliterator splits in O(1) by halving its index range, with no state shared between halves
+// ■ element i is the same whether the stream runs sequentially or in parallel, for any pool size
+// ■ with a limit the stream is SIZED | SUBSIZED, so toArray() and friends can pre-size their output
+// For a given seed the values are the ones new SplittableRandom(seed) returns from nextLong()/nextDouble().
+public class SplittableRandomStreams {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private SplittableRandomStreams() {
+    }
+
+    public static LongStream longs(long seed) {
+        return StreamSupport.longStream(new RandomLongSpliterator(seed, 0, Long.MAX_VALUE, false), false);
+    }
+
+    public static LongStream longs(long seed, long size) {
+        checkSize(size);
+        return StreamSupport.longStream(new RandomLongSpliterator(seed, 0, size, true), false);
+    }
+
+    // Values in [0.0, 1.0), like Math.random()
+    public static DoubleStream doubles(long seed) {
+        return StreamSupport.doubleStream(new RandomDoubleSpliterator(seed, 0, Long.MAX_VALUE, false), false);
+    }
+
+    public static DoubleStream doubles(long seed, long size) {
+        checkSize(size);
+        return StreamSupport.doubleStream(new RandomDoubleSpliterator(seed, 0, size, true), false);
+    }
+
+    private static void checkSize(long size) {
+        if (size < 0) throw new IllegalArgumentException("size must be non-negative: " + size);
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    static long longAt(long seed, long index) {
+        return mix64(seed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    static double doubleAt(long seed, long index) {
+        return (longAt(seed, index) >>> 11) * DOUBLE_UNIT;
+    }
+
+    // Shared index-range bookkeeping: covers [index, fence)
+    private abstract static class RandomSpliterator {
+        final long seed;
+        final boolean sized;
+        long index;
+        final long fence;
+
+        RandomSpliterator(long seed, long index, long fence, boolean sized) {
+            this.seed = seed;
+            this.index = index;
+            this.fence = fence;
+            this.sized = sized;
+        }
+
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL
+                    | (sized ? Spliterator.SIZED | Spliterator.SUBSIZED : 0);
+        }
+    }
+
+    private static final class RandomLongSpliterator extends RandomSpliterator implements Spliterator.OfLong {
+
+        RandomLongSpliterator(long seed, long index, long fence, boolean sized) {
+            super(seed, index, fence, sized);
+        }
+
+        @Override
+        public RandomLongSpliterator trySplit() {
+            long lo = index, mid = lo + ((fence - lo) >>> 1);
+            return lo >= mid ? null : new RandomLongSpliterator(seed, lo, index = mid, sized);
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= fence) return false;
+            action.accept(longAt(seed, index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            long i = index, end = fence;
+            index = end;
+            for (; i < end; i++) action.accept(longAt(seed, i));
+        }
+    }
+
+    private static final class RandomDoubleSpliterator extends RandomSpliterator implements Spliterator.OfDouble {
+
+        RandomDoubleSpliterator(long seed, long index, long fence, boolean sized) {
+            super(seed, index, fence, sized);
+        }
+
+        @Override
+        public RandomDoubleSpliterator trySplit() {
+            long lo = index, mid = lo + ((fence - lo) >>> 1);
+            return lo >= mid ? null : new RandomDoubleSpliterator(seed, lo, index = mid, sized);
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (index >= fence) return false;
+            action.accept(doubleAt(seed, index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            long i = index, end = fence;
+            index = end;
+            for (; i < end; i++) action.accept(doubleAt(seed, i));
+        }
+    }
+
+    public static void main(String[] args) {
+        var random = new SplittableRandom(42);
+        System.out.println(random.nextDouble() == doubles(42, 1).sum()); // true
+
+        double sequential = doubles(42, 1_000_000).sum();
+        double parallel = doubles(42, 1_000_000).parallel().sum();
+        System.out.println(Math.abs(sequential - parallel) < 1e-6); // true (only the summation order differs)
+
+        long[] first = longs(7, 5).toArray();
+        long[] again = longs(7, 5).parallel().toArray();
+        System.out.println(Arrays.equals(first, again)); // true
+
+        doubles(42).limit(3).forEach(System.out::println);
+    }
+}
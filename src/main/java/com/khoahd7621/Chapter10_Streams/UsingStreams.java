@@ -2,6 +2,7 @@ package com.khoahd7621.Chapter10_Streams;
 
 import java.util.*;
 import java.util.function.BinaryOperator;
+import java.util.function.IntBinaryOperator;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -99,6 +100,10 @@ class CommonStreamOperations {
         oneElement.reduce(op).ifPresent(System.out::println);    // 3
         threeElements.reduce(op).ifPresent(System.out::println); // 90
 
+        // The same reduction without boxing: IntArrayList streams as an IntStream
+        IntBinaryOperator intOp = (a, b) -> a * b;
+        IntArrayList.of(3, 5, 6).stream().reduce(intOp).ifPresent(System.out::println); // 90
+
         // Type 3: <U> U reduce(U identity, BiFunction<U,? super T,U> accumulator, BinaryOperator<U> combiner)
         int length = stream.reduce(0, (i, z) -> i + z.length(), (a, b) -> a + b);
         System.out.println(length); // 5
@@ -147,6 +152,10 @@ class CommonIntermediateOperations {
         Stream<String> s3 = Stream.of("monkey", "gorilla", "bonobo");
         s3.map(String::length).forEach(System.out::print); // 676
 
+        // The lengths kept as ints instead of a Stream<Integer>
+        IntArrayList lengths = Stream.of("monkey", "gorilla", "bonobo").collect(IntArrayList.collector(String::length));
+        lengths.stream().forEach(System.out::print); // 676
+
         // 5. FlatMap
         List<String> zero = List.of();
         var one = List.of("Bonobo");
@@ -0,0 +1,336 @@
+package com.khoahd7621.Chapter11_ExceptionsAndLocalization;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+// Formatters and messages for many threads and locales, instead of
+//   NumberFormat.getInstance(locale), DateTimeFormatter.ofPattern(pattern) and ResourceBundle.getBundle("Zoo", locale)
+// on every call, as in reading/11_Exceptions_And_Localization.
+// ■ dates(...) caches the DateTimeFormatter per pattern or style and Locale; it is immutable, so one is shared
+// ■ numbers(...) caches a Numbers per style or pattern and Locale. NumberFormat is not thread-safe:
+//   Numbers keeps a small pool of clones of one prototype, and each call borrows one and puts it back
+// ■ messages(baseName, locale) resolves the bundle and its parents once and flattens them into an
+//   immutable map. At most maxBundles are kept: when a new one pushes past that, bundles not used
+//   since the last eviction pass are dropped (second chance)
+// Formatter caches are not bounded: patterns are expected to come from code, not from users.
+public class Localizer {
+
+    public enum NumberStyle {
+        NUMBER(NumberFormat::getNumberInstance),
+        CURRENCY(NumberFormat::getCurrencyInstance),
+        PERCENT(NumberFormat::getPercentInstance),
+        INTEGER(NumberFormat::getIntegerInstance),
+        COMPACT_SHORT(locale -> NumberFormat.getCompactNumberInstance(locale, NumberFormat.Style.SHORT)),
+        COMPACT_LONG(locale -> NumberFormat.getCompactNumberInstance(locale, NumberFormat.Style.LONG));
+
+        private final Function<Locale, NumberFormat> factory;
+
+        NumberStyle(Function<Locale, NumberFormat> factory) {
+            this.factory = factory;
+        }
+    }
+
+    // spec is a pattern String, a NumberStyle or a List of FormatStyles
+    private record FormatKey(Object spec, Locale locale) {
+    }
+
+    // getBundle falls back to the default locale, so that is part of the key too
+    private record BundleKey(String baseName, Locale locale, Locale defaultLocale) {
+    }
+
+    private static final class CachedBundle {
+        final Messages messages;
+        volatile boolean used = true; // a new bundle is not the first to go
+
+        CachedBundle(Messages messages) {
+            this.messages = messages;
+        }
+    }
+
+    private final int maxBundles;
+    private final int poolSlots;
+    private final ClassLoader classLoader;
+    private final Map<FormatKey, DateTimeFormatter> dateFormatters = new ConcurrentHashMap<>();
+    private final Map<FormatKey, Numbers> numberFormatters = new ConcurrentHashMap<>();
+    private final Map<BundleKey, CachedBundle> bundles = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+
+    private Localizer(Builder builder) {
+        this.maxBundles = builder.maxBundles;
+        this.poolSlots = Integer.highestOneBit(builder.poolSlots);
+        this.classLoader = builder.classLoader;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static final class Builder {
+        private int maxBundles = 64;
+        private int poolSlots = 2 * Runtime.getRuntime().availableProcessors();
+        private ClassLoader classLoader = Localizer.class.getClassLoader();
+
+        private Builder() {
+        }
+
+        public Builder maxBundles(int bundles) {
+            if (bundles <= 0) throw new IllegalArgumentException("maxBundles must be positive: " + bundles);
+            this.maxBundles = bundles;
+            return this;
+        }
+
+        // NumberFormats kept per style and locale, rounded down to a power of two
+        public Builder poolSlots(int slots) {
+            if (slots <= 0) throw new IllegalArgumentException("poolSlots must be positive: " + slots);
+            this.poolSlots = slots;
+            return this;
+        }
+
+        // Where bundles are looked up
+        public Builder classLoader(ClassLoader classLoader) {
+            this.classLoader = classLoader;
+            return this;
+        }
+
+        public Localizer build() {
+            return new Localizer(this);
+        }
+    }
+
+    // ---- dates and times ----
+
+    public DateTimeFormatter dates(String pattern, Locale locale) {
+        return dateFormatters.computeIfAbsent(new FormatKey(pattern, locale),
+                key -> DateTimeFormatter.ofPattern(pattern, locale));
+    }
+
+    public DateTimeFormatter dates(FormatStyle dateStyle, FormatStyle timeStyle, Locale locale) {
+        return dateFormatters.computeIfAbsent(new FormatKey(List.of(dateStyle, timeStyle), locale),
+                key -> DateTimeFormatter.ofLocalizedDateTime(dateStyle, timeStyle).withLocale(locale));
+    }
+
+    public DateTimeFormatter localizedDates(FormatStyle dateStyle, Locale locale) {
+        return dateFormatters.computeIfAbsent(new FormatKey(List.of(dateStyle), locale),
+                key -> DateTimeFormatter.ofLocalizedDate(dateStyle).withLocale(locale));
+    }
+
+    // ---- numbers ----
+
+    public Numbers numbers(NumberStyle style, Locale locale) {
+        return numberFormatters.computeIfAbsent(new FormatKey(style, locale),
+                key -> new Numbers(style.factory.apply(locale), poolSlots));
+    }
+
+    // A DecimalFormat pattern with the locale's symbols
+    public Numbers numbers(String pattern, Locale locale) {
+        return numberFormatters.computeIfAbsent(new FormatKey(pattern, locale),
+                key -> new Numbers(new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(locale)), poolSlots));
+    }
+
+    // A thread-safe front for one NumberFormat configuration
+    public static final class Numbers {
+        private final NumberFormat prototype;
+        private final AtomicReferenceArray<NumberFormat> pool;
+        private final int mask;
+
+        private Numbers(NumberFormat prototype, int slots) {
+            this.prototype = prototype;
+            this.pool = new AtomicReferenceArray<>(slots);
+            this.mask = slots - 1;
+        }
+
+        // Starts at a slot picked by the calling thread, so threads mostly find their own formatter
+        private NumberFormat borrow() {
+            int start = (int) Thread.currentThread().getId();
+            for (int i = 0; i <= mask; i++) {
+                NumberFormat format = pool.getAndSet((start + i) & mask, null);
+                if (format != null) return format;
+            }
+            return (NumberFormat) prototype.clone();
+        }
+
+        // Dropped if every slot is taken
+        private void giveBack(NumberFormat format) {
+            int start = (int) Thread.currentThread().getId();
+            for (int i = 0; i <= mask; i++)
+                if (pool.compareAndSet((start + i) & mask, null, format)) return;
+        }
+
+        public String format(double number) {
+            NumberFormat format = borrow();
+            try {
+                return format.format(number);
+            } finally {
+                giveBack(format);
+            }
+        }
+
+        public String format(long number) {
+            NumberFormat format = borrow();
+            try {
+                return format.format(number);
+            } finally {
+                giveBack(format);
+            }
+        }
+
+        public Number parse(String text) throws ParseException {
+            NumberFormat format = borrow();
+            try {
+                return format.parse(text);
+            } finally {
+                giveBack(format);
+            }
+        }
+    }
+
+    // ---- messages ----
+
+    public Messages messages(String baseName, Locale locale) {
+        var key = new BundleKey(baseName, locale, Locale.getDefault());
+        CachedBundle cached = bundles.get(key);
+        if (cached == null) {
+            cached = bundles.computeIfAbsent(key, k -> new CachedBundle(load(k)));
+            if (bundles.size() > maxBundles) evict();
+        }
+        if (!cached.used) cached.used = true;
+        return cached.messages;
+    }
+
+    private Messages load(BundleKey key) {
+        ResourceBundle rb = ResourceBundle.getBundle(key.baseName(), key.locale(), classLoader);
+        Map<String, String> flattened = new HashMap<>();
+        for (String k : rb.keySet()) flattened.put(k, rb.getString(k)); // keySet() includes the parents' keys
+        return new Messages(key.baseName(), rb.getLocale(), Map.copyOf(flattened));
+    }
+
+    // Second chance: skip (and clear) recently used bundles, drop the others, until back at maxBundles
+    private void evict() {
+        synchronized (evictionLock) {
+            while (bundles.size() > maxBundles) {
+                Iterator<CachedBundle> it = bundles.values().iterator();
+                while (it.hasNext() && bundles.size() > maxBundles) {
+                    CachedBundle candidate = it.next();
+                    if (candidate.used) candidate.used = false;
+                    else it.remove();
+                }
+            }
+        }
+    }
+
+    // Drops every cached bundle, so the next messages(...) call reads the files again
+    public void clearBundles() {
+        bundles.clear();
+        ResourceBundle.clearCache(classLoader);
+    }
+
+    public int cachedBundles() {
+        return bundles.size();
+    }
+
+    // One resolved bundle: its own keys and its parents', read without locking
+    public static final class Messages {
+        private final String baseName;
+        private final Locale locale;
+        private final Map<String, String> values;
+        private final Map<String, MessageFormat> formats = new ConcurrentHashMap<>();
+
+        private Messages(String baseName, Locale locale, Map<String, String> values) {
+            this.baseName = baseName;
+            this.locale = locale;
+            this.values = values;
+        }
+
+        // The locale of the bundle that was found, e.g. fr for a request for fr_FR
+        public Locale locale() {
+            return locale;
+        }
+
+        public Set<String> keys() {
+            return values.keySet();
+        }
+
+        public Map<String, String> asMap() {
+            return values;
+        }
+
+        // Like ResourceBundle.getString: MissingResourceException for an unknown key
+        public String get(String key) {
+            String value = values.get(key);
+            if (value == null)
+                throw new MissingResourceException("Can't find resource for bundle " + baseName + ", key " + key,
+                        baseName + "_" + locale, key);
+            return value;
+        }
+
+        public String get(String key, String defaultValue) {
+            return values.getOrDefault(key, defaultValue);
+        }
+
+        // MessageFormat.format(get(key), args), parsing each pattern once; MessageFormat is not
+        // thread-safe, so every call formats with a clone
+        public String format(String key, Object... args) {
+            MessageFormat parsed = formats.computeIfAbsent(key, k -> new MessageFormat(get(k), locale));
+            return ((MessageFormat) parsed.clone()).format(args);
+        }
+    }
+
+    public static void main(String[] args) throws ParseException {
+        Localizer localizer = Localizer.builder().maxBundles(2).build();
+
+        // "Formatting Values"
+        System.out.println(localizer.numbers("###,###,###.0", Locale.US).format(1234.567)); // 1,234.6
+        System.out.println(localizer.numbers("Your Balance $#,###,###.##", Locale.US).format(1234.567));
+        // Your Balance $1,234.57
+        var dt = LocalDateTime.of(LocalDate.of(2022, Month.OCTOBER, 20), LocalTime.of(11, 12, 34));
+        System.out.println(dt.format(localizer.dates("MMMM dd, yyyy 'at' hh:mm", Locale.US)));
+        // October 20, 2022 at 11:12
+
+        // "Supporting Internationalization and Localization"
+        int attendeesPerMonth = 3_200_000 / 12;
+        System.out.println(localizer.numbers(Localizer.NumberStyle.NUMBER, Locale.US).format(attendeesPerMonth));
+        // 266,666
+        System.out.println(localizer.numbers(Localizer.NumberStyle.NUMBER, Locale.GERMANY).format(attendeesPerMonth));
+        // 266.666
+        System.out.println(localizer.numbers(Localizer.NumberStyle.PERCENT, Locale.US).format(0.25)); // 25%
+        System.out.println(localizer.numbers(Localizer.NumberStyle.NUMBER, Locale.FRANCE).parse("2,5")); // 2.5
+        System.out.println(localizer.numbers(Localizer.NumberStyle.NUMBER, Locale.US)
+                == localizer.numbers(Localizer.NumberStyle.NUMBER, Locale.US)); // true
+
+        // "Loading Properties with Resource Bundles"
+        String zoo = Localizer.class.getPackageName() + ".Zoo";
+        Locale.setDefault(Locale.US);
+        for (Locale locale : List.of(Locale.US, Locale.FRANCE)) {
+            Messages messages = localizer.messages(zoo, locale);
+            System.out.println(messages.get("hello") + ", " + messages.get("open"));
+        }
+        // Hello, The zoo is open
+        // Bonjour, Le zoo est ouvert
+        Messages canada = localizer.messages(zoo, Locale.CANADA);
+        System.out.println(canada.get("hello") + " " + canada.get("name") + " " + canada.get("visitors"));
+        // Hello Vancouver Zoo Canada visitors
+        System.out.println(localizer.messages(zoo, Locale.FRANCE).format("helloByName", "Tammy", "Henry"));
+        // Bonjour, Tammy et Henry
+        System.out.println(localizer.cachedBundles()); // 2: one of the three was evicted
+    }
+}
@@ -0,0 +1,232 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+// Writes rows with addBatch/executeBatch instead of one executeUpdate per row, as in
+// "Working with a PreparedStatement" (reading/15_JDBC). With autocommit on, every row there is a
+// round trip and a commit of its own.
+// ■ each row is bound with the Binder and added to the batch; every batchSize rows the batch is executed
+// ■ with maxDelay set, a background timer also executes a batch whose first row has waited that long,
+//   so a slow trickle of rows still reaches the database
+// ■ the writer runs in a transaction and commits after every commitEvery batches, and on flush()/close()
+// If a batch fails, the transaction is rolled back: every row since the last commit is lost, and the
+// exception is thrown from the call that ran the batch. A batch the timer ran has no caller: its failure is
+// kept and thrown (as the cause) by the next write(), flush() or close().
+// One Connection is borrowed from the ConnectionSource for the writer's lifetime and closed by close().
+public class BatchWriter<T> implements Consumer<T>, AutoCloseable {
+
+    // Sets the statement's parameters for one row
+    @FunctionalInterface
+    public interface Binder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final PreparedStatement ps;
+    private final Binder<? super T> binder;
+    private final int batchSize;
+    private final int commitEvery;
+    private final long maxDelayNanos;
+    private final ScheduledExecutorService timer;
+    private final ScheduledFuture<?> timerTask;
+
+    private int pending;
+    private long firstPendingAt;
+    private int batchesSinceCommit;
+    private long rowsWritten;
+    private boolean closed;
+    private SQLException timerFailure;
+
+    private BatchWriter(Builder<T> builder) throws SQLException {
+        this.binder = builder.binder;
+        this.batchSize = builder.batchSize;
+        this.commitEvery = builder.commitEvery;
+        this.maxDelayNanos = builder.maxDelay == null ? 0 : builder.maxDelay.toNanos();
+        this.conn = builder.source.getConnection();
+        try {
+            conn.setAutoCommit(false);
+            this.ps = conn.prepareStatement(builder.sql);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        if (maxDelayNanos > 0) {
+            this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "batch-writer-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(maxDelayNanos / 2, 1);
+            this.timerTask = timer.scheduleAtFixedRate(this::flushIfOld, period, period, TimeUnit.NANOSECONDS);
+        } else {
+            this.timer = null;
+            this.timerTask = null;
+        }
+    }
+
+    public static <T> Builder<T> builder(ConnectionSource source, String sql, Binder<? super T> binder) {
+        return new Builder<>(source, sql, binder);
+    }
+
+    public static final class Builder<T> {
+        private final ConnectionSource source;
+        private final String sql;
+        private final Binder<? super T> binder;
+        private int batchSize = 500;
+        private int commitEvery = 1;
+        private Duration maxDelay;
+
+        private Builder(ConnectionSource source, String sql, Binder<? super T> binder) {
+            this.source = source;
+            this.sql = sql;
+            this.binder = binder;
+        }
+
+        public Builder<T> batchSize(int rows) {
+            if (rows <= 0) throw new IllegalArgumentException("batchSize must be positive: " + rows);
+            this.batchSize = rows;
+            return this;
+        }
+
+        // Commit after this many executed batches
+        public Builder<T> commitEvery(int batches) {
+            if (batches <= 0) throw new IllegalArgumentException("commitEvery must be positive: " + batches);
+            this.commitEvery = batches;
+            return this;
+        }
+
+        public Builder<T> maxDelay(Duration maxDelay) {
+            if (maxDelay.isNegative() || maxDelay.isZero())
+                throw new IllegalArgumentException("maxDelay must be positive: " + maxDelay);
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        public BatchWriter<T> build() throws SQLException {
+            return new BatchWriter<>(this);
+        }
+    }
+
+    public synchronized void write(T row) throws SQLException {
+        if (closed) throw new SQLException("writer is closed");
+        rethrowTimerFailure();
+        binder.bind(ps, row);
+        ps.addBatch();
+        if (pending++ == 0) firstPendingAt = System.nanoTime();
+        if (pending >= batchSize) executeBatch();
+    }
+
+    @Override
+    public void accept(T row) {
+        try {
+            write(row);
+        } catch (SQLException e) {
+            throw new UncheckedSQLException("batch insert failed", e);
+        }
+    }
+
+    private void executeBatch() throws SQLException {
+        if (pending == 0) return;
+        try {
+            ps.executeBatch();
+            rowsWritten += pending;
+            pending = 0;
+            if (++batchesSinceCommit >= commitEvery) commit();
+        } catch (SQLException e) {
+            pending = 0;
+            batchesSinceCommit = 0;
+            ps.clearBatch();
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    private void commit() throws SQLException {
+        conn.commit();
+        batchesSinceCommit = 0;
+    }
+
+    // Timer thread: a failure here is kept for the next write()/flush()/close() to throw
+    private synchronized void flushIfOld() {
+        if (closed || timerFailure != null || pending == 0 || System.nanoTime() - firstPendingAt < maxDelayNanos) return;
+        try {
+            executeBatch();
+        } catch (SQLException e) {
+            timerFailure = e; // already rolled back
+        }
+    }
+
+    private void rethrowTimerFailure() throws SQLException {
+        if (timerFailure == null) return;
+        SQLException cause = timerFailure;
+        timerFailure = null;
+        throw new SQLException("timed batch failed and was rolled back: rows since the last commit are lost",
+                cause.getSQLState(), cause.getErrorCode(), cause);
+    }
+
+    // Executes the pending rows and commits everything written so far
+    public synchronized void flush() throws SQLException {
+        rethrowTimerFailure();
+        executeBatch();
+        if (batchesSinceCommit > 0) commit();
+    }
+
+    // Rows executed in batches so far, committed or not
+    public synchronized long rowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public synchronized void close() throws SQLException {
+        if (closed) return;
+        try {
+            flush();
+        } finally {
+            closed = true;
+            if (timer != null) {
+                timerTask.cancel(false);
+                timer.shutdown();
+            }
+            try {
+                ps.close();
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        try (ConnectionPool pool = ConnectionPool.builder(ZooDatabase.MEMORY_URL).maxSize(2).build();
+             Connection keepAlive = pool.getConnection()) {
+            ZooDatabase.create(keepAlive);
+
+            // The single-row insert from "Working with a PreparedStatement"
+            String sql = "INSERT INTO names VALUES(?, ?, ?)";
+            try (BatchWriter<Integer> writer = BatchWriter.<Integer>builder(pool, sql, (ps, id) -> {
+                ps.setInt(1, id);
+                ps.setInt(2, id % 2 + 1);
+                ps.setString(3, "Animal " + id);
+            }).batchSize(1_000).commitEvery(5).build()) {
+                IntStream.rangeClosed(6, 10_005).boxed().forEach(writer);
+                System.out.println(writer.rowsWritten()); // 10000
+            }
+
+            try (PreparedStatement ps = keepAlive.prepareStatement("SELECT COUNT(*) FROM names");
+                 ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                System.out.println(rs.getInt(1)); // 10005
+            }
+            System.out.println(pool.size()); // 2: keepAlive and the writer's connection
+        }
+    }
+}
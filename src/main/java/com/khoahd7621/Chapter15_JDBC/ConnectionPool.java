@@ -0,0 +1,413 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Instead of DriverManager.getConnection(url) for every piece of work, as in reading/15_JDBC,
+// a bounded set of physical connections handed out again and again.
+// ■ at most maxSize connections exist; getConnection() waits up to borrowTimeout for one to come back
+// ■ connections are opened on demand and reused most-recently-returned first
+// ■ close() on a borrowed Connection gives it back: an open transaction is rolled back
+//   and autocommit is switched back on
+// ■ each physical connection caches up to statementCacheSize PreparedStatements by SQL text, so
+//   prepareStatement(sql) in a try-with-resources block reuses the statement the database already planned;
+//   close() on such a statement closes the result sets it returned and clears its parameters and batch
+// ■ giving a connection back closes every statement the borrower left open (returning cached ones to the
+//   cache), so none of them can run later inside the next borrower's transaction
+// Borrowed connections and cached statements are java.lang.reflect.Proxy wrappers around the driver's objects.
+public class ConnectionPool implements ConnectionSource, AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int statementCacheSize;
+    private final long borrowTimeoutNanos;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<Physical> idle = new ConcurrentLinkedDeque<>();
+    private final Set<Physical> all = ConcurrentHashMap.newKeySet();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private volatile boolean closed;
+
+    private ConnectionPool(Builder builder) {
+        this.url = builder.url;
+        this.user = builder.user;
+        this.password = builder.password;
+        this.statementCacheSize = builder.statementCacheSize;
+        this.borrowTimeoutNanos = builder.borrowTimeout.toNanos();
+        this.permits = new Semaphore(builder.maxSize, true);
+    }
+
+    public static Builder builder(String url) {
+        return new Builder(url);
+    }
+
+    public static final class Builder {
+        private final String url;
+        private String user;
+        private String password;
+        private int maxSize = 8;
+        private int statementCacheSize = 32;
+        private Duration borrowTimeout = Duration.ofSeconds(30);
+
+        private Builder(String url) {
+            this.url = url;
+        }
+
+        public Builder credentials(String user, String password) {
+            this.user = user;
+            this.password = password;
+            return this;
+        }
+
+        public Builder maxSize(int maxSize) {
+            if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        // 0 turns statement caching off
+        public Builder statementCacheSize(int statements) {
+            if (statements < 0) throw new IllegalArgumentException("statementCacheSize must not be negative: " + statements);
+            this.statementCacheSize = statements;
+            return this;
+        }
+
+        public Builder borrowTimeout(Duration timeout) {
+            this.borrowTimeout = timeout;
+            return this;
+        }
+
+        public ConnectionPool build() {
+            return new ConnectionPool(this);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("pool is closed");
+        try {
+            if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS))
+                throw new SQLTimeoutException("no connection available within " + Duration.ofNanos(borrowTimeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("interrupted while waiting for a connection", e);
+        }
+        try {
+            Physical physical = idle.pollFirst();
+            if (physical != null && physical.connection.isClosed()) {
+                discard(physical);
+                physical = null;
+            }
+            if (physical == null) physical = open();
+            return physical.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Physical open() throws SQLException {
+        Connection connection = user == null
+                ? DriverManager.getConnection(url)
+                : DriverManager.getConnection(url, user, password);
+        Physical physical = new Physical(connection);
+        all.add(physical);
+        return physical;
+    }
+
+    private void giveBack(Physical physical) {
+        try {
+            physical.releaseStatements();
+            if (!physical.connection.getAutoCommit()) {
+                physical.connection.rollback();
+                physical.connection.setAutoCommit(true);
+            }
+            if (closed) discard(physical);
+            else idle.offerFirst(physical);
+        } catch (SQLException e) {
+            discard(physical); // broken: do not hand it out again
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(Physical physical) {
+        all.remove(physical);
+        physical.closeQuietly();
+    }
+
+    // Physical connections currently open, borrowed or idle
+    public int size() {
+        return all.size();
+    }
+
+    public long statementCacheHits() {
+        return statementHits.sum();
+    }
+
+    public long statementCacheMisses() {
+        return statementMisses.sum();
+    }
+
+    // Closes the idle connections now and borrowed ones when they are given back
+    @Override
+    public void close() {
+        closed = true;
+        Physical physical;
+        while ((physical = idle.pollFirst()) != null) discard(physical);
+    }
+
+    // A driver connection, its statement cache (least recently used first)
+    // and the statements handed out to the current borrower
+    private final class Physical {
+        final Connection connection;
+        final List<StatementLease> leased = new ArrayList<>();
+        final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) return false;
+                if (!eldest.getValue().inUse) eldest.getValue().closeQuietly();
+                else eldest.getValue().evicted = true;
+                return true;
+            }
+        };
+
+        Physical(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Lease(this));
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            if (statementCacheSize == 0) return (PreparedStatement) lease(connection.prepareStatement(sql), null, PreparedStatement.class);
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse) {
+                statementHits.increment();
+            } else {
+                statementMisses.increment();
+                // Already handed out on this connection: give out a plain, uncached statement instead
+                if (cached != null) return (PreparedStatement) lease(connection.prepareStatement(sql), null, PreparedStatement.class);
+                cached = new CachedStatement(connection.prepareStatement(sql));
+                statements.put(sql, cached);
+            }
+            cached.inUse = true;
+            return (PreparedStatement) lease(cached.statement, cached, PreparedStatement.class);
+        }
+
+        // type is the interface the caller asked for: Statement, PreparedStatement or CallableStatement
+        Object lease(Statement statement, CachedStatement cached, Class<?> type) {
+            var handler = new StatementLease(this, statement, cached);
+            leased.add(handler);
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+        }
+
+        // Called when the connection is given back
+        void releaseStatements() throws SQLException {
+            for (StatementLease lease : List.copyOf(leased)) lease.release();
+        }
+
+        void closeQuietly() {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // already broken
+            }
+        }
+    }
+
+    private final class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+        boolean evicted; // dropped from the cache while borrowed: really close it on close()
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final Physical physical;
+        private boolean returned;
+
+        Lease(Physical physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        giveBack(physical);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || physical.connection.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + physical.connection + "]";
+                }
+            }
+            if (returned) throw new SQLException("connection already given back to the pool");
+            if (method.getName().equals("prepareStatement") && args.length == 1)
+                return physical.prepare((String) args[0]);
+            Object result = delegate(physical.connection, method, args);
+            // createStatement, prepareCall and the other prepareStatement overloads: not cached, but tracked
+            if (result instanceof Statement statement) return physical.lease(statement, null, method.getReturnType());
+            return result;
+        }
+    }
+
+    // One borrower's handle on a statement. cached is null for statements that are not in the cache,
+    // which close() really closes.
+    private static final class StatementLease implements InvocationHandler {
+        private final Physical physical;
+        private final Statement statement;
+        private final CachedStatement cached;
+        private final List<ResultSet> results = new ArrayList<>();
+        private boolean closed;
+
+        StatementLease(Physical physical, Statement statement, CachedStatement cached) {
+            this.physical = physical;
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    release();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || statement.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return (cached == null ? "Leased[" : "Cached[") + statement + "]";
+                }
+            }
+            if (closed) throw new SQLException("statement is closed");
+            // Executing again closes the previous results, as the driver does
+            if (method.getName().startsWith("execute")) results.clear();
+            Object result = delegate(statement, method, args);
+            if (result instanceof ResultSet rs) results.add(rs);
+            return result;
+        }
+
+        // Closing a Statement closes its results; a cached one then goes back to the cache
+        void release() throws SQLException {
+            if (closed) return;
+            closed = true;
+            physical.leased.remove(this);
+            if (cached == null) {
+                statement.close();
+                return;
+            }
+            cached.inUse = false;
+            try {
+                for (ResultSet rs : results) rs.close();
+            } finally {
+                results.clear();
+                if (cached.evicted) {
+                    cached.closeQuietly();
+                } else {
+                    cached.statement.clearParameters();
+                    cached.statement.clearBatch();
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws SQLException {
+        try (ConnectionPool pool = ConnectionPool.builder(ZooDatabase.MEMORY_URL).maxSize(1)
+                .borrowTimeout(Duration.ofMillis(100)).build()) {
+            try (Connection conn = pool.getConnection()) {
+                ZooDatabase.create(conn);
+            }
+
+            // The query from "Getting Data from a ResultSet", run three times on one physical connection
+            for (int i = 0; i < 3; i++) {
+                try (Connection conn = pool.getConnection();
+                     PreparedStatement ps = conn.prepareStatement("SELECT name FROM exhibits WHERE num_acres <= ?")) {
+                    ps.setDouble(1, 2.0);
+                    try (var rs = ps.executeQuery()) {
+                        while (rs.next()) System.out.println(rs.getString("name")); // Zebra
+                    }
+                }
+            }
+            System.out.println(pool.size() + " " + pool.statementCacheHits()); // 1 2
+
+            Connection borrowed = pool.getConnection();
+            try {
+                pool.getConnection(); // maxSize is 1
+            } catch (SQLTimeoutException e) {
+                System.out.println(e.getMessage()); // no connection available within PT0.1S
+            } finally {
+                borrowed.close();
+            }
+
+            // A statement left open is closed when its connection goes back to the pool
+            PreparedStatement forgotten;
+            try (Connection conn = pool.getConnection()) {
+                forgotten = conn.prepareStatement("SELECT name FROM exhibits WHERE num_acres <= ?");
+            }
+            System.out.println(forgotten.isClosed()); // true
+        }
+    }
+}
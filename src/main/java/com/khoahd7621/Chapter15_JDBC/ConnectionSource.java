@@ -0,0 +1,18 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+// Where a Connection comes from: a ConnectionPool, or DriverManager as in the chapter's examples.
+// Whoever gets the Connection closes it, which for a pooled one means giving it back.
+@FunctionalInterface
+public interface ConnectionSource {
+
+    Connection getConnection() throws SQLException;
+
+    // A new physical connection every time
+    static ConnectionSource driverManager(String url) {
+        return () -> DriverManager.getConnection(url);
+    }
+}
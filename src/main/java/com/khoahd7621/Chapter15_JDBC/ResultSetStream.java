@@ -0,0 +1,202 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// A query result as a Stream<T>, pulled row by row, instead of the
+//   while (rs.next()) idToNameMap.put(rs.getInt("id"), rs.getString("name"));
+// loops of "Getting Data from a ResultSet", which hold every row before anything else runs.
+// ■ each rs.next() happens when the stream asks for the next element; with fetchSize set, the driver
+//   fetches that many rows per round trip (some drivers, such as PostgreSQL, only honour it inside a
+//   transaction, so the query runs with autocommit off)
+// ■ mapColumns resolves column names to positions once per query, so the mapper reads by index
+// ■ closing the stream closes the ResultSet, the PreparedStatement and the Connection, in that order;
+//   so does reaching the last row. Use the stream in try-with-resources, as with Files.lines.
+// SQLExceptions from the pipeline come out as UncheckedSQLException.
+public final class ResultSetStream {
+
+    private ResultSetStream() {
+    }
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Parameters {
+        void set(PreparedStatement ps) throws SQLException;
+    }
+
+    // Builds a RowMapper once the columns of the result are known
+    @FunctionalInterface
+    public interface ColumnMapping<T> {
+        RowMapper<T> prepare(Columns columns) throws SQLException;
+    }
+
+    // Column labels of a result, case-insensitive, to their 1-based positions
+    public static final class Columns {
+        private final Map<String, Integer> positions = new HashMap<>();
+
+        Columns(ResultSetMetaData metaData) throws SQLException {
+            for (int i = metaData.getColumnCount(); i >= 1; i--) // the first of duplicate labels wins
+                positions.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+
+        public int index(String label) throws SQLException {
+            Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+            if (position == null) throw new SQLException("no column " + label + " in " + positions.keySet());
+            return position;
+        }
+    }
+
+    public static Query query(ConnectionSource source, String sql) {
+        return new Query(source, sql);
+    }
+
+    public static final class Query {
+        private final ConnectionSource source;
+        private final String sql;
+        private Parameters parameters = ps -> {
+        };
+        private int fetchSize;
+
+        private Query(ConnectionSource source, String sql) {
+            this.source = source;
+            this.sql = sql;
+        }
+
+        public Query parameters(Parameters parameters) {
+            this.parameters = parameters;
+            return this;
+        }
+
+        // Rows per round trip; 0 leaves it to the driver
+        public Query fetchSize(int rows) {
+            if (rows < 0) throw new IllegalArgumentException("fetchSize must not be negative: " + rows);
+            this.fetchSize = rows;
+            return this;
+        }
+
+        // Runs the query now; rows are read as the stream is consumed
+        public <T> Stream<T> map(RowMapper<T> mapper) throws SQLException {
+            return mapColumns(columns -> mapper);
+        }
+
+        public <T> Stream<T> mapColumns(ColumnMapping<T> mapping) throws SQLException {
+            Connection conn = source.getConnection();
+            PreparedStatement ps = null;
+            ResultSet rs = null;
+            try {
+                conn.setAutoCommit(false);
+                ps = conn.prepareStatement(sql);
+                ps.setFetchSize(fetchSize);
+                parameters.set(ps);
+                rs = ps.executeQuery();
+                RowMapper<T> mapper = mapping.prepare(new Columns(rs.getMetaData()));
+                return stream(rs, mapper, rs, ps, conn);
+            } catch (SQLException | RuntimeException e) {
+                closeAll(e, rs, ps, conn);
+                throw e;
+            }
+        }
+    }
+
+    // Streams an already executed ResultSet; closing the stream closes resources, first to last
+    public static <T> Stream<T> stream(ResultSet rs, RowMapper<T> mapper, AutoCloseable... resources) {
+        var rows = new RowSpliterator<>(rs, mapper, resources);
+        return StreamSupport.stream(rows, false).onClose(rows::close);
+    }
+
+    private static final class RowSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private final AutoCloseable[] resources;
+        private boolean closed;
+
+        RowSpliterator(ResultSet rs, RowMapper<T> mapper, AutoCloseable[] resources) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED);
+            this.rs = rs;
+            this.mapper = mapper;
+            this.resources = resources;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) return false;
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            Exception failure = closeAll(null, resources);
+            if (failure instanceof SQLException e) throw new UncheckedSQLException("closing the query failed", e);
+            if (failure != null) throw new IllegalStateException("closing the query failed", failure);
+        }
+    }
+
+    // Closes every resource, even after failures; returns the first failure with the others suppressed
+    private static Exception closeAll(Exception failure, AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) continue;
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        return failure;
+    }
+
+    record Animal(int id, int speciesId, String name) {
+    }
+
+    // Runs on the embedded ZooDatabase from the main classpath (HyperSQL is an optional compile dependency)
+    public static void main(String[] args) throws SQLException {
+        try (ConnectionPool pool = ConnectionPool.builder(ZooDatabase.MEMORY_URL).maxSize(2).build();
+             Connection keepAlive = pool.getConnection()) {
+            ZooDatabase.create(keepAlive);
+
+            // The idToNameMap example, without the loop
+            try (Stream<Animal> animals = ResultSetStream.query(pool, "SELECT * FROM names")
+                    .fetchSize(1_000)
+                    .mapColumns(columns -> {
+                        int id = columns.index("id"), speciesId = columns.index("species_id"), name = columns.index("name");
+                        return rs -> new Animal(rs.getInt(id), rs.getInt(speciesId), rs.getString(name));
+                    })) {
+                System.out.println(animals.collect(Collectors.toMap(Animal::id, Animal::name)));
+                // {1=Elsa, 2=Zelda, 3=Ester, 4=Eddie, 5=Zoe}
+            }
+
+            try (Stream<String> names = ResultSetStream.query(pool, "SELECT name FROM names WHERE species_id = ?")
+                    .parameters(ps -> ps.setInt(1, 1))
+                    .map(rs -> rs.getString(1))) {
+                System.out.println(names.filter(n -> n.startsWith("E")).count()); // 3
+            }
+            System.out.println(pool.size()); // 2: the query's connection went back to the pool
+        }
+    }
+}
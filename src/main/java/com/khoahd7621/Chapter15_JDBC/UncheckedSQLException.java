@@ -0,0 +1,23 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import java.sql.SQLException;
+
+// SQLException wrapper for places that cannot throw checked exceptions, like Consumer.accept
+// or a Stream pipeline; the same idea as java.io.UncheckedIOException.
+public class UncheckedSQLException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -0,0 +1,37 @@
+package com.khoahd7621.Chapter15_JDBC;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// The two tables used throughout reading/15_JDBC, in an embedded HyperSQL database:
+//   exhibits (id, name, num_acres)       one row per species
+//   names    (id, species_id, name)      one row per animal
+// HyperSQL is an optional compile dependency: the mains in this package run from the main classpath,
+// e.g. mvn exec:java -Dexec.mainClass=com.khoahd7621.Chapter15_JDBC.BatchWriter, but projects that
+// depend on this one do not inherit it.
+public class ZooDatabase {
+
+    // In-memory, and gone once its last connection closes
+    public static final String MEMORY_URL = "jdbc:hsqldb:mem:zoo";
+
+    private ZooDatabase() {
+    }
+
+    public static void create(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DROP TABLE names IF EXISTS");
+            stmt.executeUpdate("DROP TABLE exhibits IF EXISTS");
+            stmt.executeUpdate("CREATE TABLE exhibits (id INTEGER PRIMARY KEY, name VARCHAR(255), num_acres DECIMAL(4,1))");
+            stmt.executeUpdate("CREATE TABLE names (id INTEGER PRIMARY KEY, species_id INTEGER REFERENCES exhibits (id), "
+                    + "name VARCHAR(255))");
+            stmt.executeUpdate("INSERT INTO exhibits VALUES (1, 'African Elephant', 7.5)");
+            stmt.executeUpdate("INSERT INTO exhibits VALUES (2, 'Zebra', 1.2)");
+            stmt.executeUpdate("INSERT INTO names VALUES (1, 1, 'Elsa')");
+            stmt.executeUpdate("INSERT INTO names VALUES (2, 2, 'Zelda')");
+            stmt.executeUpdate("INSERT INTO names VALUES (3, 1, 'Ester')");
+            stmt.executeUpdate("INSERT INTO names VALUES (4, 1, 'Eddie')");
+            stmt.executeUpdate("INSERT INTO names VALUES (5, 2, 'Zoe')");
+        }
+    }
+}
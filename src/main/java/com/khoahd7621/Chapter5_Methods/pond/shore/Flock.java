@@ -0,0 +1,49 @@
+package com.khoahd7621.Chapter5_Methods.pond.shore;
+
+import com.khoahd7621.Chapter5_Methods.pond.goose.Gosling;
+
+// Birds of any kind, kept in a TypePartitioned so floatAll() can run one loop per concrete class.
+// Each loop below is its own call site: the Bird loop only ever sees Bird, the Gosling loop only Gosling,
+// so both calls to floatInWater() stay monomorphic however the birds were mixed when added.
+// Other subclasses go through the shared per-element fallback.
+// Lives in pond.shore because floatInWater() is protected: package access makes the calls legal here.
+public class Flock {
+
+    private final TypePartitioned<Bird> birds = new TypePartitioned<>();
+
+    private static final TypePartitioned.Dispatcher<Bird> FLOAT = new TypePartitioned.Dispatcher<Bird>()
+            .on(Bird.class, group -> {
+                for (int i = 0; i < group.size(); i++) group.get(i).floatInWater();
+            })
+            .on(Gosling.class, group -> {
+                for (int i = 0; i < group.size(); i++) group.get(i).floatInWater();
+            })
+            .otherwise(Bird::floatInWater);
+
+    public Flock add(Bird bird) {
+        birds.add(bird);
+        return this;
+    }
+
+    public int size() {
+        return birds.size();
+    }
+
+    public void floatAll() {
+        FLOAT.run(birds);
+    }
+
+    public static void main(String[] args) {
+        Flock flock = new Flock()
+                .add(new Bird())
+                .add(new Gosling())
+                .add(new Bird())
+                .add(new Gosling());
+        flock.floatAll();
+        System.out.println(); // floatingfloatingfloatingfloating
+
+        for (var group : flock.birds.groups()) System.out.println(group.type().getSimpleName() + " x" + group.size());
+        // Bird x2
+        // Gosling x2
+    }
+}
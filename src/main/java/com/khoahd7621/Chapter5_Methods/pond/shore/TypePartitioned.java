@@ -0,0 +1,151 @@
+package com.khoahd7621.Chapter5_Methods.pond.shore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+// A collection that keeps its elements apart by concrete class: one array-backed Group per class.
+// A loop like for (Bird bird : birds) bird.floatInWater() over Birds, Goslings and others has one call
+// site that sees every class; past two the JIT gives up inlining it (megamorphic) and every call is a
+// virtual lookup. Handing each Group to its own loop (see Dispatcher) keeps each loop's call site on
+// one class, so the JIT can inline the method there.
+//
+// Elements of the same class stay in insertion order; groups come in the order their class first appeared.
+public final class TypePartitioned<T> implements Iterable<T> {
+
+    public static final class Group<S> {
+        private final Class<S> type;
+        private Object[] elements = new Object[16];
+        private int size;
+
+        private Group(Class<S> type) {
+            this.type = type;
+        }
+
+        private void add(Object element) {
+            if (size == elements.length) elements = Arrays.copyOf(elements, size * 2);
+            elements[size++] = element;
+        }
+
+        public Class<S> type() {
+            return type;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public S get(int index) {
+            return (S) elements[index];
+        }
+    }
+
+    // Receives a whole Group; the loop over its elements belongs in the handler, so each handler
+    // has a call site of its own
+    @FunctionalInterface
+    public interface BatchHandler<S> {
+        void process(Group<? extends S> group);
+    }
+
+    private final Map<Class<?>, Group<?>> byType = new IdentityHashMap<>();
+    private final List<Group<?>> groups = new ArrayList<>();
+    private Group<?> last; // runs of the same class skip the map lookup
+    private int size;
+
+    public void add(T element) {
+        Class<?> type = element.getClass();
+        Group<?> group = last;
+        if (group == null || group.type != type) {
+            group = byType.get(type);
+            if (group == null) {
+                group = new Group<>(type);
+                byType.put(type, group);
+                groups.add(group);
+            }
+            last = group;
+        }
+        group.add(element);
+        size++;
+    }
+
+    public void addAll(Collection<? extends T> elements) {
+        for (T element : elements) add(element);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // The group holding instances of exactly this class, or null
+    @SuppressWarnings("unchecked")
+    public <S extends T> Group<S> group(Class<S> type) {
+        return (Group<S>) byType.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Group<? extends T>> groups() {
+        return Collections.unmodifiableList((List<Group<? extends T>>) (List<?>) groups);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            int group, index;
+
+            @Override
+            public boolean hasNext() {
+                while (group < groups.size() && index == groups.get(group).size) {
+                    group++;
+                    index = 0;
+                }
+                return group < groups.size();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return (T) groups.get(group).elements[index++];
+            }
+        };
+    }
+
+    // Runs each group through the handler registered for its exact class, and any other group through
+    // the fallback, one element at a time
+    public static final class Dispatcher<T> {
+        private final Map<Class<?>, BatchHandler<?>> handlers = new IdentityHashMap<>();
+        private Consumer<? super T> fallback = element -> {
+            throw new IllegalStateException("no handler for " + element.getClass().getName());
+        };
+
+        public <S extends T> Dispatcher<T> on(Class<S> type, BatchHandler<? super S> handler) {
+            handlers.put(type, handler);
+            return this;
+        }
+
+        public Dispatcher<T> otherwise(Consumer<? super T> fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public void run(TypePartitioned<? extends T> elements) {
+            for (Group<?> group : elements.groups) {
+                BatchHandler handler = handlers.get(group.type);
+                if (handler != null) {
+                    handler.process(group);
+                } else {
+                    for (int i = 0; i < group.size; i++) fallback.accept((T) group.elements[i]);
+                }
+            }
+        }
+    }
+}
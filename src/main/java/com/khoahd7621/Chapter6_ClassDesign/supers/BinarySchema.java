@@ -0,0 +1,202 @@
+package com.khoahd7621.Chapter6_ClassDesign.supers;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+// The fields of a class, in a fixed order, and how to write each one into a ByteBuffer and read it back.
+// Fields are read and set through lambdas written against the declared type, so a hidden field is just
+// a different lambda: ((Insect) b).numberOfLegs and b.numberOfLegs are two entries of a Bettle schema.
+//
+// Format, big-endian like ByteBuffer: int = 4 bytes, short = 2 bytes,
+// String = int byte length (-1 for null) followed by UTF-8 bytes. No field names, no class metadata:
+// reader and writer share the schema.
+public final class BinarySchema<T> {
+
+    private interface Field<T> {
+        void write(T value, ByteBuffer buffer);
+
+        void read(T value, ByteBuffer buffer);
+
+        int size(T value);
+    }
+
+    private final Supplier<T> factory;
+    private final List<String> names;
+    private final List<Field<T>> fields;
+
+    private BinarySchema(Supplier<T> factory, List<String> names, List<Field<T>> fields) {
+        this.factory = factory;
+        this.names = List.copyOf(names);
+        this.fields = List.copyOf(fields);
+    }
+
+    public static <T> Builder<T> builder(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    public void write(T value, ByteBuffer buffer) {
+        for (Field<T> field : fields) field.write(value, buffer);
+    }
+
+    // Reads the fields into a new instance from the factory
+    public T read(ByteBuffer buffer) {
+        T value = factory.get();
+        for (Field<T> field : fields) field.read(value, buffer);
+        return value;
+    }
+
+    // Exact number of bytes write(value, ...) puts into the buffer
+    public int encodedSize(T value) {
+        int size = 0;
+        for (Field<T> field : fields) size += field.size(value);
+        return size;
+    }
+
+    public List<String> fieldNames() {
+        return names;
+    }
+
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final List<String> names = new ArrayList<>();
+        private final List<Field<T>> fields = new ArrayList<>();
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        private Builder<T> add(String name, Field<T> field) {
+            if (names.contains(name)) throw new IllegalArgumentException("duplicate field name: " + name);
+            names.add(name);
+            fields.add(field);
+            return this;
+        }
+
+        public Builder<T> intField(String name, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            return add(name, new Field<>() {
+                @Override
+                public void write(T value, ByteBuffer buffer) {
+                    buffer.putInt(getter.applyAsInt(value));
+                }
+
+                @Override
+                public void read(T value, ByteBuffer buffer) {
+                    setter.accept(value, buffer.getInt());
+                }
+
+                @Override
+                public int size(T value) {
+                    return Integer.BYTES;
+                }
+            });
+        }
+
+        // ObjIntConsumer because java.util.function has no short specializations; the value always fits
+        public Builder<T> shortField(String name, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+            return add(name, new Field<>() {
+                @Override
+                public void write(T value, ByteBuffer buffer) {
+                    buffer.putShort((short) getter.applyAsInt(value));
+                }
+
+                @Override
+                public void read(T value, ByteBuffer buffer) {
+                    setter.accept(value, buffer.getShort());
+                }
+
+                @Override
+                public int size(T value) {
+                    return Short.BYTES;
+                }
+            });
+        }
+
+        public Builder<T> stringField(String name, Function<T, String> getter, BiConsumer<T, String> setter) {
+            return add(name, new Field<>() {
+                @Override
+                public void write(T value, ByteBuffer buffer) {
+                    putString(buffer, getter.apply(value));
+                }
+
+                @Override
+                public void read(T value, ByteBuffer buffer) {
+                    setter.accept(value, getString(buffer));
+                }
+
+                @Override
+                public int size(T value) {
+                    String s = getter.apply(value);
+                    return Integer.BYTES + (s == null ? 0 : utf8Length(s));
+                }
+            });
+        }
+
+        public BinarySchema<T> build() {
+            return new BinarySchema<>(factory, names, fields);
+        }
+    }
+
+    // Encodes straight into the buffer, then goes back to fill in the length
+    static void putString(ByteBuffer buffer, String s) {
+        if (s == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        int lengthAt = buffer.position();
+        buffer.putInt(0);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xF0 | cp >> 18)).put((byte) (0x80 | cp >> 12 & 0x3F))
+                        .put((byte) (0x80 | cp >> 6 & 0x3F)).put((byte) (0x80 | cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?'); // unpaired, as String.getBytes(UTF_8) does
+            } else {
+                buffer.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+        buffer.putInt(lengthAt, buffer.position() - lengthAt - Integer.BYTES);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        String s;
+        if (buffer.hasArray()) {
+            s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) length++;
+            else if (c < 0x800) length += 2;
+            else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) length++;
+            else length += 3;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,97 @@
+package com.khoahd7621.Chapter6_ClassDesign.supers;
+
+import java.nio.ByteBuffer;
+
+// Binary form of Insect and Bettle without Java serialization.
+// Bettle hides Insect's numberOfLegs, so a Bettle carries two of them: 4 in the Insect part, 6 in its own.
+// The Bettle schema lists both, reading one through ((Insect) b) and the other through b,
+// so both survive the round trip.
+//
+// Each record is a one-byte type tag followed by the fields of that type's schema:
+//   Insect: tag 0, Insect.numberOfLegs, Insect.label                               (4 + 4 + UTF-8 bytes)
+//   Bettle: tag 1, Insect.numberOfLegs, Insect.label, Bettle.numberOfLegs, Bettle.age (+ 4 + 2 bytes)
+// The caller owns the ByteBuffer and can reuse it for every record.
+public final class InsectCodec {
+
+    private static final byte INSECT = 0;
+    private static final byte BETTLE = 1;
+
+    static final BinarySchema<Insect> INSECT_SCHEMA = BinarySchema.builder(Insect::new)
+            .intField("Insect.numberOfLegs", i -> i.numberOfLegs, (i, v) -> i.numberOfLegs = v)
+            .stringField("Insect.label", i -> i.label, (i, v) -> i.label = v)
+            .build();
+
+    static final BinarySchema<Bettle> BETTLE_SCHEMA = BinarySchema.builder(Bettle::new)
+            .intField("Insect.numberOfLegs", b -> ((Insect) b).numberOfLegs, (b, v) -> ((Insect) b).numberOfLegs = v)
+            .stringField("Insect.label", b -> b.label, (b, v) -> b.label = v)
+            .intField("Bettle.numberOfLegs", b -> b.numberOfLegs, (b, v) -> b.numberOfLegs = v)
+            .shortField("Bettle.age", b -> b.age, (b, v) -> b.age = (short) v)
+            .build();
+
+    private InsectCodec() {
+    }
+
+    // Exact classes only: a further subclass would lose its own fields, so it is rejected
+    public static void write(Insect insect, ByteBuffer buffer) {
+        if (insect.getClass() == Bettle.class) {
+            buffer.put(BETTLE);
+            BETTLE_SCHEMA.write((Bettle) insect, buffer);
+        } else if (insect.getClass() == Insect.class) {
+            buffer.put(INSECT);
+            INSECT_SCHEMA.write(insect, buffer);
+        } else {
+            throw new IllegalArgumentException("no schema for " + insect.getClass().getName());
+        }
+    }
+
+    public static Insect read(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case INSECT -> INSECT_SCHEMA.read(buffer);
+            case BETTLE -> BETTLE_SCHEMA.read(buffer);
+            default -> throw new IllegalArgumentException("unknown type tag " + tag);
+        };
+    }
+
+    // Same exact-class check as write
+    public static int encodedSize(Insect insect) {
+        if (insect.getClass() == Bettle.class) return 1 + BETTLE_SCHEMA.encodedSize((Bettle) insect);
+        if (insect.getClass() == Insect.class) return 1 + INSECT_SCHEMA.encodedSize(insect);
+        throw new IllegalArgumentException("no schema for " + insect.getClass().getName());
+    }
+
+    public static byte[] encode(Insect insect) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(insect));
+        write(insect, buffer);
+        return buffer.array();
+    }
+
+    public static Insect decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    public static void main(String[] args) {
+        Bettle bettle = new Bettle();
+        ((Insect) bettle).numberOfLegs = 8;
+        bettle.label = "rhinoceros beetle";
+        bettle.age = 5;
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        write(bettle, buffer);
+        write(new Insect(), buffer);
+        System.out.println(buffer.position()); // 46: 1 + 4 + 4 + 17 + 4 + 2, then 1 + 4 + 4 + 5
+
+        buffer.flip();
+        Bettle copy = (Bettle) read(buffer);
+        copy.printData();
+        // rhinoceros beetle
+        // rhinoceros beetle
+        // 5
+        // 6
+        System.out.println(((Insect) copy).numberOfLegs); // 8: the hidden field came back too
+        System.out.println(read(buffer).label);           // buggy
+
+        System.out.println(BETTLE_SCHEMA.fieldNames());
+        // [Insect.numberOfLegs, Insect.label, Bettle.numberOfLegs, Bettle.age]
+    }
+}
@@ -0,0 +1,331 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+// Drop-in for forEach(System.out::println) on busy or parallel pipelines.
+// System.out.println takes the PrintStream's lock and, with autoflush, writes to the file descriptor
+// on every line, so parallel threads printing end up taking turns on one monitor.
+//
+// An AsyncPrinter is a Consumer<Object> that:
+// ■ appends String.valueOf(x) + '\n' to a buffer owned by the calling thread
+// ■ when that buffer reaches batchChars, hands it as one UTF-8 byte[] batch to a bounded ring
+//   (many producers, one consumer: slots are claimed with a compareAndSet on the tail)
+// ■ lets one background thread take the batches and write them to a WritableByteChannel,
+//   copying small batches together so each write() call carries up to 64 KB
+// When the ring is full the Overflow policy decides: wait, drop the batch, or write it from the caller.
+// flush() pushes every thread's buffer out and waits until it has been written; close() flushes and
+// stops the writer; closeOnShutdown() does that from a shutdown hook.
+// Lines from one thread keep their order (except under CALLER_RUNS); lines from different threads
+// interleave batch by batch.
+public class AsyncPrinter implements Consumer<Object>, AutoCloseable {
+
+    public enum Overflow {
+        BLOCK,       // wait for the writer to make room
+        DROP,        // discard the batch and count it in droppedBatches()
+        CALLER_RUNS  // write the batch from the calling thread, possibly ahead of its earlier queued batches
+    }
+
+    private static final int STAGING_BYTES = 64 * 1024;
+
+    // The calling thread's pending text
+    private static final class Local {
+        final Thread owner = Thread.currentThread();
+        final StringBuilder text = new StringBuilder();
+    }
+
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final int batchChars;
+    private final Overflow overflow;
+
+    private final AtomicReferenceArray<byte[]> ring;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong(); // next sequence a producer will claim
+    private volatile long head;                      // next sequence the writer will take
+    private volatile long written;                   // every sequence below this is in the channel
+    private long staged;                             // writer only: sequences below this are in the channel or staging
+
+    private final ConcurrentLinkedQueue<Local> locals = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Local> local = ThreadLocal.withInitial(() -> {
+        Local created = new Local();
+        locals.add(created);
+        return created;
+    });
+
+    private final Object channelLock = new Object();
+    private final ByteBuffer staging = ByteBuffer.allocateDirect(STAGING_BYTES);
+    private final Thread writer;
+    private volatile boolean open = true;     // accept() and flush() allowed
+    private volatile boolean running = true;  // writer keeps polling
+    private volatile IOException failure;
+    private final LongAdder dropped = new LongAdder();
+
+    private AsyncPrinter(Builder builder) {
+        this.channel = builder.channel;
+        this.closeChannel = builder.closeChannel;
+        this.batchChars = builder.batchChars;
+        this.overflow = builder.overflow;
+        int capacity = Integer.highestOneBit(builder.ringCapacity);
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.writer = new Thread(this::writeLoop, "async-printer-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static Builder builder(WritableByteChannel channel) {
+        return new Builder(channel, false);
+    }
+
+    // Standard output, left open on close()
+    public static AsyncPrinter toStandardOutput() {
+        return builder(Channels.newChannel(new FileOutputStream(FileDescriptor.out))).build();
+    }
+
+    // Creates or truncates the file, and closes it on close()
+    public static AsyncPrinter toFile(Path file) throws IOException {
+        return new Builder(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), true).build();
+    }
+
+    public static final class Builder {
+        private final WritableByteChannel channel;
+        private boolean closeChannel;
+        private int ringCapacity = 1024;
+        private int batchChars = 8 * 1024;
+        private Overflow overflow = Overflow.BLOCK;
+
+        private Builder(WritableByteChannel channel, boolean closeChannel) {
+            this.channel = channel;
+            this.closeChannel = closeChannel;
+        }
+
+        // Rounded down to a power of two
+        public Builder ringCapacity(int batches) {
+            if (batches < 2) throw new IllegalArgumentException("ring needs at least 2 slots: " + batches);
+            this.ringCapacity = batches;
+            return this;
+        }
+
+        public Builder batchChars(int chars) {
+            if (chars <= 0) throw new IllegalArgumentException("batchChars must be positive: " + chars);
+            this.batchChars = chars;
+            return this;
+        }
+
+        public Builder overflow(Overflow overflow) {
+            this.overflow = overflow;
+            return this;
+        }
+
+        public Builder closeChannel(boolean closeChannel) {
+            this.closeChannel = closeChannel;
+            return this;
+        }
+
+        public AsyncPrinter build() {
+            return new AsyncPrinter(this);
+        }
+    }
+
+    @Override
+    public void accept(Object x) {
+        Local mine = local.get();
+        // Uncontended except against flush() and close(); publishing under the lock keeps this thread's
+        // batches in order, and checking under it means close() cannot miss text appended after its push
+        synchronized (mine) {
+            checkOpen();
+            mine.text.append(x).append('\n');
+            if (mine.text.length() >= batchChars) publish(take(mine));
+        }
+    }
+
+    private static byte[] take(Local local) {
+        byte[] batch = local.text.toString().getBytes(StandardCharsets.UTF_8);
+        local.text.setLength(0);
+        return batch;
+    }
+
+    private void checkOpen() {
+        if (failure != null) throw new UncheckedIOException("writer failed", failure);
+        if (!open) throw new IllegalStateException("printer is closed");
+    }
+
+    private void publish(byte[] batch) {
+        while (!offer(batch)) {
+            switch (overflow) {
+                case DROP -> {
+                    dropped.increment();
+                    return;
+                }
+                case CALLER_RUNS -> {
+                    synchronized (channelLock) {
+                        writeFully(ByteBuffer.wrap(batch));
+                    }
+                    return;
+                }
+                case BLOCK -> {
+                    if (!writer.isAlive()) checkOpen();
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(10_000);
+                }
+            }
+        }
+        LockSupport.unpark(writer);
+    }
+
+    private boolean offer(byte[] batch) {
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head > mask) return false; // full
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        ring.set((int) claimed & mask, batch);
+        return true;
+    }
+
+    // null when empty, or when the next slot has been claimed but not filled in yet
+    private byte[] poll() {
+        long next = head;
+        int slot = (int) next & mask;
+        byte[] batch = ring.get(slot);
+        if (batch == null) return null;
+        ring.set(slot, null);
+        head = next + 1;
+        return batch;
+    }
+
+    private void writeLoop() {
+        try {
+            while (running || head != tail.get()) {
+                byte[] batch = poll();
+                if (batch == null) {
+                    drainStaging();
+                    LockSupport.parkNanos(this, 100_000);
+                    continue;
+                }
+                if (batch.length > staging.remaining()) drainStaging();
+                if (batch.length > staging.capacity()) {
+                    synchronized (channelLock) {
+                        writeFully(ByteBuffer.wrap(batch));
+                    }
+                    written = head;
+                } else {
+                    staging.put(batch);
+                    staged = head;
+                }
+            }
+            drainStaging();
+        } catch (UncheckedIOException e) {
+            failure = e.getCause();
+        }
+    }
+
+    // Writes the staged batches and moves written past them, so flush() progresses even if the ring never empties
+    private void drainStaging() {
+        if (staging.position() == 0) return;
+        staging.flip();
+        synchronized (channelLock) {
+            writeFully(staging);
+        }
+        staging.clear();
+        written = staged;
+    }
+
+    private void writeFully(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) channel.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Hands every thread's pending text to the writer and waits until all of it is in the channel
+    public void flush() {
+        checkOpen();
+        pushLocals();
+        awaitWritten(tail.get());
+    }
+
+    private void pushLocals() {
+        for (Local pending : locals) {
+            synchronized (pending) {
+                if (pending.text.length() > 0) publish(take(pending));
+            }
+            if (!pending.owner.isAlive()) locals.remove(pending);
+        }
+    }
+
+    private void awaitWritten(long sequence) {
+        while (written < sequence && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+        if (failure != null) throw new UncheckedIOException("writer failed", failure);
+    }
+
+    public long droppedBatches() {
+        return dropped.sum();
+    }
+
+    @Override
+    // Refuses new lines first, then pushes what is pending (under each Local's lock) and stops the writer
+    public void close() {
+        if (!open) return;
+        open = false;
+        pushLocals();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (failure != null) throw new UncheckedIOException("writer failed", failure);
+    }
+
+    public AsyncPrinter closeOnShutdown() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "async-printer-shutdown"));
+        return this;
+    }
+
+    public static void main(String[] args) {
+        // The Consumer example from BuiltinFunctionalInterfaces.ConsumerAndBiComsumerFIs
+        try (AsyncPrinter out = AsyncPrinter.toStandardOutput()) {
+            Consumer<Object> c1 = out;
+            Consumer<Object> c2 = x -> out.accept(x);
+
+            c1.accept("Annie"); // Annie
+            c2.accept("Annie"); // Annie
+            out.flush();
+
+            // Each thread's lines stay in order; the threads' batches interleave
+            IntStream.rangeClosed(1, 5).parallel().boxed().forEach(out);
+        }
+        // 1 to 5, in some order
+    }
+}
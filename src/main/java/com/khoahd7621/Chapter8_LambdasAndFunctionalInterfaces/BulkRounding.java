@@ -0,0 +1,153 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Whole-array version of Converter c = Math::round from MethodReferences.StaticMethod.
+// Calling c.round(x) once per element goes through an interface call for every value; the loops here
+// are plain counted loops over arrays (dst[i] = Math.round(src[i])), which the JIT unrolls and,
+// where the CPU has the instructions, vectorizes.
+// ■ round(double[]) / round(src, from, to, dst, dstFrom): into a new or a caller-owned long[]
+// ■ roundInPlace(double[]): overwrites each value with (double) Math.round(value)
+// ■ round(DoubleBuffer, LongBuffer): array loop for heap buffers, get/put otherwise
+// ■ roundInChunks: converts through one reusable long[] chunk, for output that should not be held whole
+// ■ parallelRound: splits big arrays over the common ForkJoinPool
+// Every method gives exactly what Math.round gives; reference(...) keeps the per-element Converter call.
+public class BulkRounding {
+
+    // Below this many elements the parallel path just runs the sequential loop
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private BulkRounding() {
+    }
+
+    // Receives consecutive rounded chunks; rounded is reused, so copy what must be kept
+    @FunctionalInterface
+    public interface ChunkSink {
+        void accept(long[] rounded, int count, int sourceOffset);
+    }
+
+    public static long[] reference(MethodReferences.StaticMethod.Converter converter, double[] values) {
+        long[] rounded = new long[values.length];
+        for (int i = 0; i < values.length; i++) rounded[i] = converter.round(values[i]);
+        return rounded;
+    }
+
+    public static long[] round(double[] values) {
+        long[] rounded = new long[values.length];
+        roundRange(values, 0, values.length, rounded, 0);
+        return rounded;
+    }
+
+    // Rounds src[from, to) into dst starting at dstFrom
+    public static long[] round(double[] src, int from, int to, long[] dst, int dstFrom) {
+        Objects.checkFromToIndex(from, to, src.length);
+        Objects.checkFromIndexSize(dstFrom, to - from, dst.length);
+        roundRange(src, from, to, dst, dstFrom);
+        return dst;
+    }
+
+    private static void roundRange(double[] src, int from, int to, long[] dst, int dstFrom) {
+        int offset = dstFrom - from;
+        for (int i = from; i < to; i++) dst[i + offset] = Math.round(src[i]);
+    }
+
+    public static double[] roundInPlace(double[] values) {
+        for (int i = 0; i < values.length; i++) values[i] = Math.round(values[i]);
+        return values;
+    }
+
+    // Converts src.remaining() values (dst must have room for them) and advances both positions
+    public static void round(DoubleBuffer src, LongBuffer dst) {
+        int count = src.remaining();
+        if (dst.remaining() < count) throw new IllegalArgumentException("dst has room for " + dst.remaining()
+                + " values, src has " + count);
+        if (src.hasArray() && dst.hasArray()) {
+            int from = src.arrayOffset() + src.position();
+            roundRange(src.array(), from, from + count, dst.array(), dst.arrayOffset() + dst.position());
+            src.position(src.position() + count);
+            dst.position(dst.position() + count);
+        } else {
+            for (int i = 0; i < count; i++) dst.put(Math.round(src.get()));
+        }
+    }
+
+    public static void roundInChunks(double[] values, int chunkSize, ChunkSink sink) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        long[] chunk = new long[Math.min(chunkSize, values.length)];
+        for (int from = 0; from < values.length; from += chunk.length) {
+            int to = Math.min(from + chunk.length, values.length);
+            roundRange(values, from, to, chunk, 0);
+            sink.accept(chunk, to - from, from);
+        }
+    }
+
+    public static long[] parallelRound(double[] values) {
+        return parallelRound(values, new long[values.length]);
+    }
+
+    public static long[] parallelRound(double[] src, long[] dst) {
+        if (dst.length < src.length) throw new IllegalArgumentException("dst is shorter than src");
+        if (src.length <= PARALLEL_THRESHOLD) roundRange(src, 0, src.length, dst, 0);
+        else ForkJoinPool.commonPool().invoke(new RoundTask(src, dst, 0, src.length));
+        return dst;
+    }
+
+    private static class RoundTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] src;
+        private final long[] dst;
+        private final int from;
+        private final int to;
+
+        RoundTask(double[] src, long[] dst, int from, int to) {
+            this.src = src;
+            this.dst = dst;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                roundRange(src, from, to, dst, from);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RoundTask(src, dst, from, middle), new RoundTask(src, dst, middle, to));
+        }
+    }
+
+    public static void main(String[] args) {
+        // The Converter example from MethodReferences.StaticMethod
+        MethodReferences.StaticMethod.Converter c = Math::round;
+        System.out.println(c.round(3.5)); // 4
+
+        double[] readings = { 3.5, -3.5, 0.49999999999999994, 2.4, Double.NaN, 1e30 };
+        System.out.println(Arrays.toString(reference(c, readings)));
+        // [4, -3, 0, 2, 0, 9223372036854775807]
+        System.out.println(Arrays.toString(round(readings)));
+        // [4, -3, 0, 2, 0, 9223372036854775807]
+
+        double[] big = new double[1_000_000];
+        Arrays.setAll(big, i -> i / 3.0);
+        System.out.println(Arrays.equals(parallelRound(big), reference(c, big))); // true
+
+        roundInChunks(new double[] { 0.4, 0.6, 1.5, 2.5, 3.7 }, 2,
+                (rounded, count, offset) -> System.out.println(offset + ": " + Arrays.toString(Arrays.copyOf(rounded, count))));
+        // 0: [0, 1]
+        // 2: [2, 3]
+        // 4: [4]
+
+        LongBuffer out = LongBuffer.allocate(3);
+        round(DoubleBuffer.wrap(new double[] { 9.9, 10.1, 10.5 }), out);
+        System.out.println(Arrays.toString(out.array())); // [10, 10, 11]
+
+        System.out.println(Arrays.toString(roundInPlace(new double[] { 1.2, 1.8 }))); // [1.0, 2.0]
+    }
+}
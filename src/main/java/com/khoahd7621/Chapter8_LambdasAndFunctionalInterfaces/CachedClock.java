@@ -0,0 +1,152 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Coarse replacement for Supplier<LocalDate> s1 = LocalDate::now when every event gets stamped.
+// LocalDate::now reads the system clock, resolves the default zone and allocates a LocalDate on each call.
+//
+// A CachedClock keeps the current time in one immutable Reading (Instant, epoch millis, LocalDate)
+// behind a volatile field:
+// ■ ticking(resolution) refreshes it from a daemon thread every resolution, so values are at most
+//   one resolution old
+// ■ manual(...) only moves when advance()/set() are called, for deterministic tests
+// The suppliers read that field once and return what is already there: no clock call, no allocation.
+public class CachedClock implements AutoCloseable {
+
+    // Everything a supplier can hand out, computed once per tick
+    private record Reading(Instant instant, long millis, LocalDate date) {
+    }
+
+    private final Clock source;
+    private final ScheduledExecutorService ticker;
+    private volatile Reading current;
+
+    private final Supplier<Instant> instants = () -> current.instant;
+    private final Supplier<LocalDate> dates = () -> current.date;
+    private final LongSupplier millis = () -> current.millis;
+
+    private CachedClock(Clock source, Duration resolution) {
+        this.source = source;
+        this.current = read(source.instant(), null);
+        if (resolution == null) {
+            this.ticker = null;
+            return;
+        }
+        if (resolution.isNegative() || resolution.isZero())
+            throw new IllegalArgumentException("resolution must be positive: " + resolution);
+        this.ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "cached-clock-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long nanos = resolution.toNanos();
+        ticker.scheduleAtFixedRate(this::tick, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static CachedClock ticking(Duration resolution) {
+        return ticking(resolution, Clock.systemDefaultZone());
+    }
+
+    // The source's zone decides which LocalDate an instant falls on
+    public static CachedClock ticking(Duration resolution, Clock source) {
+        return new CachedClock(source, resolution);
+    }
+
+    public static Manual manual(Instant start, ZoneId zone) {
+        return new Manual(Clock.fixed(start, zone));
+    }
+
+    private void tick() {
+        update(source.instant());
+    }
+
+    private void update(Instant instant) {
+        current = read(instant, current);
+    }
+
+    // Keeps the previous LocalDate while the day has not changed, so most ticks allocate only the Reading
+    private Reading read(Instant instant, Reading previous) {
+        LocalDate date = LocalDate.ofInstant(instant, source.getZone());
+        if (previous != null && previous.date.equals(date)) date = previous.date;
+        return new Reading(instant, instant.toEpochMilli(), date);
+    }
+
+    public Supplier<Instant> instants() {
+        return instants;
+    }
+
+    public Supplier<LocalDate> dates() {
+        return dates;
+    }
+
+    public LongSupplier epochMillis() {
+        return millis;
+    }
+
+    public Instant instant() {
+        return current.instant;
+    }
+
+    public LocalDate today() {
+        return current.date;
+    }
+
+    public long millis() {
+        return current.millis;
+    }
+
+    // Stops the ticker; the suppliers keep returning the last reading
+    @Override
+    public void close() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    // Only changes when told to
+    public static final class Manual extends CachedClock {
+
+        private Manual(Clock start) {
+            super(start, null);
+        }
+
+        public synchronized Manual set(Instant instant) {
+            super.update(instant);
+            return this;
+        }
+
+        public synchronized Manual advance(Duration amount) {
+            return set(instant().plus(amount));
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // The Supplier example from BuiltinFunctionalInterfaces.SupplierFI
+        try (CachedClock clock = CachedClock.ticking(Duration.ofMillis(10))) {
+            Supplier<LocalDate> s1 = clock.dates();
+            Supplier<LocalDate> s2 = () -> clock.today();
+
+            System.out.println(s1.get()); // today's date
+            System.out.println(s2.get()); // today's date
+            System.out.println(s1.get() == s2.get()); // true: the same cached object
+
+            long before = clock.millis();
+            Thread.sleep(50);
+            System.out.println(clock.millis() > before); // true: the ticker moved it on
+        }
+
+        Manual clock = CachedClock.manual(Instant.parse("2022-01-31T23:59:00Z"), ZoneId.of("UTC"));
+        Supplier<LocalDate> dates = clock.dates();
+        System.out.println(dates.get()); // 2022-01-31
+        clock.advance(Duration.ofMinutes(2));
+        System.out.println(dates.get()); // 2022-02-01
+        System.out.println(clock.instants().get()); // 2022-02-01T00:01:00Z
+    }
+}
@@ -0,0 +1,194 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongUnaryOperator;
+
+// Primitive replacement for chains like after.compose(before) on Function<Integer, Integer>.
+// ■ Function<Integer, Integer> unboxes and re-boxes between every link.
+// ■ Long compose()/andThen() chains are lambdas calling lambdas; the shared call sites inside
+//   compose/andThen see many different targets (megamorphic), so the JIT stops inlining them.
+//
+// FusedInt/FusedLong/FusedDouble take the whole chain at once, in andThen order (first operator first),
+// and fold it into one MethodHandle with MethodHandles.filterReturnValue. After a few hundred calls
+// HotSpot customizes that handle into a single compiled method with every operator inlined.
+// applyAll runs the fused chain over a whole array.
+public class FusedComposition {
+
+    private static final MethodHandle APPLY_INT = virtual(IntUnaryOperator.class, "applyAsInt", int.class);
+    private static final MethodHandle APPLY_LONG = virtual(LongUnaryOperator.class, "applyAsLong", long.class);
+    private static final MethodHandle APPLY_DOUBLE = virtual(DoubleUnaryOperator.class, "applyAsDouble", double.class);
+
+    private FusedComposition() {
+    }
+
+    private static MethodHandle virtual(Class<?> type, String name, Class<?> primitive) {
+        try {
+            return MethodHandles.publicLookup().findVirtual(type, name, MethodType.methodType(primitive, primitive));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // identity, then each operator's handle (bound to that operator) filtering the previous result
+    private static MethodHandle fuse(Class<?> primitive, MethodHandle apply, List<?> chain) {
+        MethodHandle fused = MethodHandles.identity(primitive);
+        for (Object operator : chain) fused = MethodHandles.filterReturnValue(fused, apply.bindTo(operator));
+        return fused;
+    }
+
+    public static final class FusedInt implements IntUnaryOperator {
+        private final MethodHandle chain;
+        private final int depth;
+
+        private FusedInt(List<IntUnaryOperator> operators) {
+            this.chain = fuse(int.class, APPLY_INT, operators);
+            this.depth = operators.size();
+        }
+
+        public static FusedInt of(IntUnaryOperator... operators) {
+            return new FusedInt(List.of(operators));
+        }
+
+        public static FusedInt of(List<IntUnaryOperator> operators) {
+            return new FusedInt(List.copyOf(operators));
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public int applyAsInt(int operand) {
+            try {
+                return (int) chain.invokeExact(operand);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t); // operators cannot throw checked exceptions
+            }
+        }
+
+        // In place
+        public int[] applyAll(int[] values) {
+            return applyAll(values, values);
+        }
+
+        public int[] applyAll(int[] source, int[] target) {
+            if (target.length < source.length) throw new IllegalArgumentException("target is shorter than source");
+            for (int i = 0; i < source.length; i++) target[i] = applyAsInt(source[i]);
+            return target;
+        }
+    }
+
+    public static final class FusedLong implements LongUnaryOperator {
+        private final MethodHandle chain;
+        private final int depth;
+
+        private FusedLong(List<LongUnaryOperator> operators) {
+            this.chain = fuse(long.class, APPLY_LONG, operators);
+            this.depth = operators.size();
+        }
+
+        public static FusedLong of(LongUnaryOperator... operators) {
+            return new FusedLong(List.of(operators));
+        }
+
+        public static FusedLong of(List<LongUnaryOperator> operators) {
+            return new FusedLong(List.copyOf(operators));
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public long applyAsLong(long operand) {
+            try {
+                return (long) chain.invokeExact(operand);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        public long[] applyAll(long[] values) {
+            return applyAll(values, values);
+        }
+
+        public long[] applyAll(long[] source, long[] target) {
+            if (target.length < source.length) throw new IllegalArgumentException("target is shorter than source");
+            for (int i = 0; i < source.length; i++) target[i] = applyAsLong(source[i]);
+            return target;
+        }
+    }
+
+    public static final class FusedDouble implements DoubleUnaryOperator {
+        private final MethodHandle chain;
+        private final int depth;
+
+        private FusedDouble(List<DoubleUnaryOperator> operators) {
+            this.chain = fuse(double.class, APPLY_DOUBLE, operators);
+            this.depth = operators.size();
+        }
+
+        public static FusedDouble of(DoubleUnaryOperator... operators) {
+            return new FusedDouble(List.of(operators));
+        }
+
+        public static FusedDouble of(List<DoubleUnaryOperator> operators) {
+            return new FusedDouble(List.copyOf(operators));
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        @Override
+        public double applyAsDouble(double operand) {
+            try {
+                return (double) chain.invokeExact(operand);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        public double[] applyAll(double[] values) {
+            return applyAll(values, values);
+        }
+
+        public double[] applyAll(double[] source, double[] target) {
+            if (target.length < source.length) throw new IllegalArgumentException("target is shorter than source");
+            for (int i = 0; i < source.length; i++) target[i] = applyAsDouble(source[i]);
+            return target;
+        }
+    }
+
+    public static void main(String[] args) {
+        // The Function example from BuiltinFunctionalInterfaces.ConvenienceMethods
+        Function<Integer, Integer> before = x -> x + 1;
+        Function<Integer, Integer> after = x -> x * 2;
+        Function<Integer, Integer> combinedFunction = after.compose(before);
+        System.out.println(combinedFunction.apply(3)); // 8
+
+        // Same chain, primitive and fused: before runs first
+        FusedInt fused = FusedInt.of(x -> x + 1, x -> x * 2);
+        System.out.println(fused.applyAsInt(3)); // 8
+
+        int[] values = { 1, 2, 3 };
+        fused.applyAll(values);
+        System.out.println(Arrays.toString(values)); // [4, 6, 8]
+
+        FusedDouble celsiusToFahrenheit = FusedDouble.of(c -> c * 9 / 5, f -> f + 32);
+        System.out.println(celsiusToFahrenheit.applyAsDouble(100)); // 212.0
+    }
+}
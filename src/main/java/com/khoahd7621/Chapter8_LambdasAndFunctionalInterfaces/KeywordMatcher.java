@@ -0,0 +1,240 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// A KeywordRule compiled into one pass over the text.
+// egg.and(brown) built from s -> s.contains(...) scans the string once per leaf;
+// with 200 keywords that is 200 scans of every line.
+//
+// compile() instead:
+// ■ numbers every distinct leaf (same keyword twice = same leaf)
+// ■ builds an Aho-Corasick automaton over all contains() keywords, as a dense DFA over the
+//   characters that occur in the keywords, so scanning costs one table lookup per character
+// ■ checks startsWith/endsWith leaves directly, which only looks at the ends of the text
+// ■ sets one bit per leaf that matched, then evaluates the boolean tree (kept in postfix order) over those bits
+public final class KeywordMatcher implements Predicate<String> {
+
+    private static final int AND = -1, OR = -2, NOT = -3;
+
+    private final Map<KeywordRule, Integer> leafIds;
+    private final int leafCount;
+    // The tree in postfix order: a leaf id (>= 0) pushes its bit, AND/OR/NOT pop their operands
+    private final int[] program;
+    private final int stackDepth;
+
+    // Automaton: delta[state * stride + symbol], symbol 0 = a character no keyword contains
+    private final char[] symbols;
+    private final int stride;
+    private final int[] delta;
+    private final int[][] outputs;     // leaf ids recognised on entering a state, or null
+    private final int containsLeaves;  // how many leaves the automaton can find, to stop early
+
+    private final String[] prefixes;
+    private final int[] prefixLeaves;
+    private final String[] suffixes;
+    private final int[] suffixLeaves;
+
+    private KeywordMatcher(KeywordRule rule) {
+        this.leafIds = new LinkedHashMap<>();
+        List<Integer> postfix = new ArrayList<>();
+        this.stackDepth = compileTree(rule, postfix);
+        this.program = postfix.stream().mapToInt(Integer::intValue).toArray();
+        this.leafCount = leafIds.size();
+
+        List<String> keywords = new ArrayList<>();
+        List<Integer> keywordLeaves = new ArrayList<>();
+        List<String> prefixList = new ArrayList<>();
+        List<Integer> prefixIds = new ArrayList<>();
+        List<String> suffixList = new ArrayList<>();
+        List<Integer> suffixIds = new ArrayList<>();
+        leafIds.forEach((leaf, id) -> {
+            if (leaf instanceof KeywordRule.Contains c) {
+                keywords.add(c.keyword());
+                keywordLeaves.add(id);
+            } else if (leaf instanceof KeywordRule.StartsWith p) {
+                prefixList.add(p.prefix());
+                prefixIds.add(id);
+            } else if (leaf instanceof KeywordRule.EndsWith e) {
+                suffixList.add(e.suffix());
+                suffixIds.add(id);
+            }
+        });
+        this.prefixes = prefixList.toArray(String[]::new);
+        this.prefixLeaves = prefixIds.stream().mapToInt(Integer::intValue).toArray();
+        this.suffixes = suffixList.toArray(String[]::new);
+        this.suffixLeaves = suffixIds.stream().mapToInt(Integer::intValue).toArray();
+        this.containsLeaves = keywords.size();
+
+        // Alphabet: each character used by some keyword gets a symbol 1..k
+        this.symbols = new char[Character.MAX_VALUE + 1];
+        int alphabet = 1;
+        for (String keyword : keywords)
+            for (int i = 0; i < keyword.length(); i++)
+                if (symbols[keyword.charAt(i)] == 0) symbols[keyword.charAt(i)] = (char) alphabet++;
+        this.stride = alphabet;
+
+        // Trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> found = new ArrayList<>();
+        trie.add(new int[stride]);
+        found.add(new ArrayList<>());
+        for (int k = 0; k < keywords.size(); k++) {
+            String keyword = keywords.get(k);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = symbols[keyword.charAt(i)];
+                if (trie.get(state)[symbol] == 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(new int[stride]);
+                    found.add(new ArrayList<>());
+                }
+                state = trie.get(state)[symbol];
+            }
+            found.get(state).add(keywordLeaves.get(k));
+        }
+
+        // Breadth-first: failure links, turning missing edges into DFA transitions and merging outputs
+        int states = trie.size();
+        this.delta = new int[states * stride];
+        int[] failure = new int[states];
+        var queue = new ArrayDeque<Integer>();
+        for (int symbol = 0; symbol < stride; symbol++) {
+            int next = trie.get(0)[symbol];
+            delta[symbol] = next;
+            if (next != 0) queue.add(next);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            found.get(state).addAll(found.get(failure[state]));
+            for (int symbol = 0; symbol < stride; symbol++) {
+                int next = trie.get(state)[symbol];
+                if (next != 0) {
+                    failure[next] = delta[failure[state] * stride + symbol];
+                    delta[state * stride + symbol] = next;
+                    queue.add(next);
+                } else {
+                    delta[state * stride + symbol] = delta[failure[state] * stride + symbol];
+                }
+            }
+        }
+        this.outputs = new int[states][];
+        for (int state = 0; state < states; state++) {
+            List<Integer> ids = found.get(state);
+            if (!ids.isEmpty()) outputs[state] = ids.stream().mapToInt(Integer::intValue).distinct().toArray();
+        }
+    }
+
+    public static KeywordMatcher compile(KeywordRule rule) {
+        return new KeywordMatcher(rule);
+    }
+
+    // Appends the node in postfix order and returns the stack depth its evaluation needs
+    private int compileTree(KeywordRule node, List<Integer> postfix) {
+        if (node instanceof KeywordRule.And a) return binary(a.left(), a.right(), AND, postfix);
+        if (node instanceof KeywordRule.Or o) return binary(o.left(), o.right(), OR, postfix);
+        if (node instanceof KeywordRule.Not n) {
+            int depth = compileTree(n.rule(), postfix);
+            postfix.add(NOT);
+            return depth;
+        }
+        postfix.add(leafIds.computeIfAbsent(node, leaf -> leafIds.size()));
+        return 1;
+    }
+
+    private int binary(KeywordRule left, KeywordRule right, int op, List<Integer> postfix) {
+        int leftDepth = compileTree(left, postfix);
+        int rightDepth = compileTree(right, postfix);
+        postfix.add(op);
+        return Math.max(leftDepth, rightDepth + 1);
+    }
+
+    @Override
+    public boolean test(String text) {
+        long[] matched = new long[(leafCount + 63) >>> 6];
+        if (containsLeaves > 0) scan(text, matched);
+        for (int i = 0; i < prefixes.length; i++)
+            if (text.startsWith(prefixes[i])) set(matched, prefixLeaves[i]);
+        for (int i = 0; i < suffixes.length; i++)
+            if (text.endsWith(suffixes[i])) set(matched, suffixLeaves[i]);
+        return evaluate(matched);
+    }
+
+    private void scan(String text, long[] matched) {
+        int state = 0, remaining = containsLeaves;
+        // The empty keyword is found in every text
+        if (outputs[0] != null) remaining -= mark(outputs[0], matched);
+        for (int i = 0, length = text.length(); i < length && remaining > 0; i++) {
+            state = delta[state * stride + symbols[text.charAt(i)]];
+            int[] ids = outputs[state];
+            if (ids != null) remaining -= mark(ids, matched);
+        }
+    }
+
+    // Sets the bits and returns how many were newly set
+    private static int mark(int[] ids, long[] matched) {
+        int added = 0;
+        for (int id : ids) {
+            long bit = 1L << id;
+            if ((matched[id >>> 6] & bit) == 0) {
+                matched[id >>> 6] |= bit;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private static void set(long[] matched, int id) {
+        matched[id >>> 6] |= 1L << id;
+    }
+
+    private boolean evaluate(long[] matched) {
+        boolean[] stack = new boolean[stackDepth];
+        int top = 0;
+        for (int op : program) {
+            if (op >= 0) {
+                stack[top++] = (matched[op >>> 6] & (1L << op)) != 0;
+            } else if (op == NOT) {
+                stack[top - 1] = !stack[top - 1];
+            } else {
+                boolean right = stack[--top];
+                stack[top - 1] = op == AND ? stack[top - 1] && right : stack[top - 1] || right;
+            }
+        }
+        return stack[0];
+    }
+
+    public int states() {
+        return outputs.length;
+    }
+
+    @Override
+    public String toString() {
+        return "KeywordMatcher[leaves=" + leafCount + ", states=" + states() + "]";
+    }
+
+    public static void main(String[] args) {
+        // The Predicate example from BuiltinFunctionalInterfaces.ConvenienceMethods
+        KeywordRule egg = KeywordRule.contains("egg");
+        KeywordRule brown = KeywordRule.contains("brown");
+
+        Predicate<String> brownEggs = egg.and(brown).compile();
+        Predicate<String> otherEggs = egg.and(brown.negate()).compile();
+
+        System.out.println(brownEggs.test("brown egg")); // true
+        System.out.println(brownEggs.test("yolk"));      // false
+        System.out.println(otherEggs.test("brown egg")); // false
+        System.out.println(otherEggs.test("yolk"));      // false
+
+        Predicate<String> alert = KeywordRule.startsWith("ERROR")
+                .and(KeywordRule.containsAny("timeout", "refused", "reset"))
+                .and(KeywordRule.endsWith("retrying").negate())
+                .compile();
+        System.out.println(alert.test("ERROR connection refused by host"));  // true
+        System.out.println(alert.test("ERROR connection reset, retrying"));  // false
+    }
+}
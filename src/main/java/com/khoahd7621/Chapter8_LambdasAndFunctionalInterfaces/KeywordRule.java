@@ -0,0 +1,81 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.util.function.Predicate;
+
+// A boolean tree of contains/startsWith/endsWith tests on a String, like
+//   Predicate<String> egg = s -> s.contains("egg");
+//   Predicate<String> brown = s -> s.contains("brown");
+//   egg.and(brown.negate())
+// but kept as data, so compile() can turn the whole tree into a KeywordMatcher that scans the text once.
+// naive() builds the equivalent composed Predicate, one String method call per leaf.
+public sealed interface KeywordRule {
+
+    record Contains(String keyword) implements KeywordRule {
+    }
+
+    record StartsWith(String prefix) implements KeywordRule {
+    }
+
+    record EndsWith(String suffix) implements KeywordRule {
+    }
+
+    record And(KeywordRule left, KeywordRule right) implements KeywordRule {
+    }
+
+    record Or(KeywordRule left, KeywordRule right) implements KeywordRule {
+    }
+
+    record Not(KeywordRule rule) implements KeywordRule {
+    }
+
+    static KeywordRule contains(String keyword) {
+        return new Contains(keyword);
+    }
+
+    static KeywordRule startsWith(String prefix) {
+        return new StartsWith(prefix);
+    }
+
+    static KeywordRule endsWith(String suffix) {
+        return new EndsWith(suffix);
+    }
+
+    // Matches if any of the keywords occurs
+    static KeywordRule containsAny(String... keywords) {
+        KeywordRule rule = contains(keywords[0]);
+        for (int i = 1; i < keywords.length; i++) rule = rule.or(contains(keywords[i]));
+        return rule;
+    }
+
+    // Matches if all the keywords occur
+    static KeywordRule containsAll(String... keywords) {
+        KeywordRule rule = contains(keywords[0]);
+        for (int i = 1; i < keywords.length; i++) rule = rule.and(contains(keywords[i]));
+        return rule;
+    }
+
+    default KeywordRule and(KeywordRule other) {
+        return new And(this, other);
+    }
+
+    default KeywordRule or(KeywordRule other) {
+        return new Or(this, other);
+    }
+
+    default KeywordRule negate() {
+        return new Not(this);
+    }
+
+    default Predicate<String> compile() {
+        return KeywordMatcher.compile(this);
+    }
+
+    default Predicate<String> naive() {
+        if (this instanceof Contains c) return s -> s.contains(c.keyword());
+        if (this instanceof StartsWith p) return s -> s.startsWith(p.prefix());
+        if (this instanceof EndsWith e) return s -> s.endsWith(e.suffix());
+        if (this instanceof And a) return a.left().naive().and(a.right().naive());
+        if (this instanceof Or o) return o.left().naive().or(o.right().naive());
+        return ((Not) this).rule().naive().negate();
+    }
+}
@@ -0,0 +1,64 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+
+// Per-key counters and sums for many writer threads.
+// Each key owns a LongAdder, so after the first add for a key no thread takes a lock or retries a CAS
+// on a shared cell: contended adds spread over the adder's internal cells.
+// counting() and summing() expose it as the Consumer/ObjLongConsumer a stream's forEach expects.
+public class LongAdderMap<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> cells = new ConcurrentHashMap<>();
+
+    private LongAdder cell(K key) {
+        LongAdder cell = cells.get(key); // lock-free fast path for keys seen before
+        return cell != null ? cell : cells.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    public void increment(K key) {
+        cell(key).increment();
+    }
+
+    public void add(K key, long amount) {
+        cell(key).add(amount);
+    }
+
+    // 0 for keys never seen
+    public long sum(K key) {
+        LongAdder cell = cells.get(key);
+        return cell == null ? 0 : cell.sum();
+    }
+
+    public Consumer<K> counting() {
+        return this::increment;
+    }
+
+    public ObjLongConsumer<K> summing() {
+        return this::add;
+    }
+
+    // Immutable copy; values written while it is taken may be partly included
+    public Map<K, Long> snapshot() {
+        Map<K, Long> copy = new HashMap<>();
+        cells.forEach((key, cell) -> copy.put(key, cell.sum()));
+        return Map.copyOf(copy);
+    }
+
+    public static void main(String[] args) {
+        var counts = new LongAdderMap<String>();
+        Stream.of("duck", "duck", "duck", "goose").parallel().forEach(counts.counting());
+        System.out.println(counts.sum("duck"));  // 3
+        System.out.println(counts.sum("swan"));  // 0
+
+        var legs = new LongAdderMap<String>();
+        legs.summing().accept("chicken", 2);
+        legs.add("chicken", 2);
+        System.out.println(legs.snapshot()); // {chicken=4}
+    }
+}
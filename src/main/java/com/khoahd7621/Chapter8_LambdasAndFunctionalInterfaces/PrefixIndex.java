@@ -0,0 +1,166 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Many prefixes checked at once, instead of one str::startsWith per prefix as in
+// MethodReferences.InstanceMethod. Checking a key against n prefixes with startsWith costs n calls;
+// walking this trie costs one step per character of the key, however many prefixes there are.
+//
+// The trie is immutable and stored in flat arrays, nodes numbered breadth-first:
+// ■ the edges of node n are edgeLabel/edgeTarget[edgeStart[n], edgeStart[n + 1]), sorted by label,
+//   so a step is a binary search over that node's labels
+// ■ prefixId[n] is the index in prefixes of the prefix ending at node n, or -1
+// of(...) sorts and de-duplicates the prefixes, then builds every node in one breadth-first pass.
+public final class PrefixIndex {
+
+    private final String[] prefixes;
+    private final int[] edgeStart;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] prefixId;
+
+    private PrefixIndex(String[] sorted) {
+        this.prefixes = sorted;
+        // At most one node per character of input, plus the root
+        long bound = 1;
+        for (String prefix : sorted) bound += prefix.length();
+        int max = (int) Math.min(bound, Integer.MAX_VALUE - 8);
+        int[] starts = new int[max + 1];
+        char[] labels = new char[max];
+        int[] targets = new int[max];
+        int[] ids = new int[max];
+
+        // Each queue entry is a node still to expand: the sorted range [lo, hi) of prefixes below it, and its depth
+        var queue = new ArrayDeque<int[]>();
+        queue.add(new int[] { 0, sorted.length, 0 });
+        int node = 0, nodes = 1, edges = 0;
+        while (!queue.isEmpty()) {
+            int[] range = queue.poll();
+            int lo = range[0], hi = range[1], depth = range[2];
+            starts[node] = edges;
+            ids[node] = -1;
+            if (lo < hi && sorted[lo].length() == depth) ids[node] = lo++;
+            while (lo < hi) {
+                char label = sorted[lo].charAt(depth);
+                int end = lo + 1;
+                while (end < hi && sorted[end].charAt(depth) == label) end++;
+                labels[edges] = label;
+                targets[edges++] = nodes++;
+                queue.add(new int[] { lo, end, depth + 1 });
+                lo = end;
+            }
+            node++;
+        }
+        starts[nodes] = edges;
+        this.edgeStart = Arrays.copyOf(starts, nodes + 1);
+        this.edgeLabel = Arrays.copyOf(labels, edges);
+        this.edgeTarget = Arrays.copyOf(targets, edges);
+        this.prefixId = Arrays.copyOf(ids, nodes);
+    }
+
+    public static PrefixIndex of(String... prefixes) {
+        return of(Arrays.asList(prefixes));
+    }
+
+    public static PrefixIndex of(Collection<String> prefixes) {
+        return new PrefixIndex(prefixes.stream().sorted().distinct().toArray(String[]::new));
+    }
+
+    // Node reached from node by label, or -1
+    private int child(int node, char label) {
+        int lo = edgeStart[node], hi = edgeStart[node + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char found = edgeLabel[mid];
+            if (found < label) lo = mid + 1;
+            else if (found > label) hi = mid - 1;
+            else return edgeTarget[mid];
+        }
+        return -1;
+    }
+
+    // Whether some prefix in the index starts key
+    public boolean matchesAny(String key) {
+        int node = 0;
+        for (int i = 0; ; i++) {
+            if (prefixId[node] >= 0) return true;
+            if (i == key.length() || (node = child(node, key.charAt(i))) < 0) return false;
+        }
+    }
+
+    public Optional<String> longestMatch(String key) {
+        int longest = -1, node = 0;
+        for (int i = 0; ; i++) {
+            if (prefixId[node] >= 0) longest = prefixId[node];
+            if (i == key.length() || (node = child(node, key.charAt(i))) < 0) break;
+        }
+        return longest < 0 ? Optional.empty() : Optional.of(prefixes[longest]);
+    }
+
+    // Every prefix of the index that starts key, shortest first
+    public List<String> allMatches(String key) {
+        List<String> matches = new ArrayList<>();
+        int node = 0;
+        for (int i = 0; ; i++) {
+            if (prefixId[node] >= 0) matches.add(prefixes[prefixId[node]]);
+            if (i == key.length() || (node = child(node, key.charAt(i))) < 0) break;
+        }
+        return matches;
+    }
+
+    public boolean contains(String prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length() && node >= 0; i++) node = child(node, prefix.charAt(i));
+        return node >= 0 && prefixId[node] >= 0;
+    }
+
+    // The String passed in is the key; the prefixes it is checked against are the whole index
+    public MethodReferences.InstanceMethod.StringStart asStringStart() {
+        return this::matchesAny;
+    }
+
+    // text.startsWith(prefix), restricted to prefixes of the index
+    public MethodReferences.InstanceMethodOnParameter.StringTwoParameterChecker asTwoParameterChecker() {
+        return (text, prefix) -> text.startsWith(prefix) && contains(prefix);
+    }
+
+    public int size() {
+        return prefixes.length;
+    }
+
+    public int nodes() {
+        return prefixId.length;
+    }
+
+    @Override
+    public String toString() {
+        return "PrefixIndex[prefixes=" + size() + ", nodes=" + nodes() + "]";
+    }
+
+    public static void main(String[] args) {
+        // The StringStart example from MethodReferences.InstanceMethod
+        var str = "Zoo";
+        MethodReferences.InstanceMethod.StringStart methodRef = str::startsWith;
+        System.out.println(methodRef.beginningCheck("A")); // false
+
+        // Which of many prefixes start a key
+        PrefixIndex routes = PrefixIndex.of("/api", "/api/v1", "/api/v1/users", "/static", "/api/v2");
+        MethodReferences.InstanceMethod.StringStart routed = routes.asStringStart();
+        System.out.println(routed.beginningCheck("/api/v1/users/42")); // true
+        System.out.println(routed.beginningCheck("/health"));          // false
+
+        System.out.println(routes.longestMatch("/api/v1/users/42")); // Optional[/api/v1/users]
+        System.out.println(routes.longestMatch("/api/v3"));          // Optional[/api]
+        System.out.println(routes.allMatches("/api/v1/users/42"));   // [/api, /api/v1, /api/v1/users]
+
+        MethodReferences.InstanceMethodOnParameter.StringTwoParameterChecker checker = routes.asTwoParameterChecker();
+        System.out.println(checker.check("/api/v1/users/42", "/api/v1")); // true
+        System.out.println(checker.check("/api/v1/users/42", "/api/v")); // false: not in the index
+        System.out.println(routes); // PrefixIndex[prefixes=5, nodes=21]
+    }
+}
@@ -0,0 +1,192 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+// Bounded replacement for StringCopier methodRef1 = String::new on an ingest path.
+// String::new makes a new copy of every value, so a million rows with a thousand distinct values
+// keep a million Strings alive. A StringPool hands back one canonical instance per value instead:
+//   UnaryOperator<String> dedup = pool;   or   StringCopier copier = pool.asCopier();
+//
+// ■ sized by memory: the table gets one slot per ~64 bytes of the budget, and a value is only
+//   kept while the estimated size of everything kept stays within the budget
+// ■ lock-free: a value may only live in the PROBES slots after its hash, claimed with compareAndSet
+// ■ CLOCK eviction inside that window: a hit sets the slot's reference bit; when the window is full,
+//   the sweep clears set bits (second chance) and replaces the first slot whose bit was already clear
+// Unlike String.intern() it never grows past the budget and forgets values that stop coming.
+public class StringPool implements UnaryOperator<String> {
+
+    private static final int PROBES = 8; // power of two, evictInto wraps with PROBES - 1
+    private static final int BYTES_PER_SLOT = 64;
+    // String object + byte[] header, assuming compact (Latin-1) strings
+    private static final int STRING_OVERHEAD = 24 + 16;
+
+    private final AtomicReferenceArray<String> slots;
+    private final AtomicIntegerArray referenced;
+    private final int mask;
+    private final int shift;
+    private final long budgetBytes;
+    private final int maxLength;
+
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Values longer than maxLength are returned as they are: rarely repeated, expensive to compare
+    public StringPool(long budgetBytes, int maxLength) {
+        if (budgetBytes < BYTES_PER_SLOT * PROBES)
+            throw new IllegalArgumentException("budget too small: " + budgetBytes);
+        if (maxLength <= 0) throw new IllegalArgumentException("maxLength must be positive: " + maxLength);
+        long wanted = Math.min(budgetBytes / BYTES_PER_SLOT, 1 << 30);
+        int size = Integer.highestOneBit((int) wanted);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.referenced = new AtomicIntegerArray(size);
+        this.mask = size - 1;
+        this.shift = 32 - Integer.numberOfTrailingZeros(size);
+        this.budgetBytes = budgetBytes;
+        this.maxLength = maxLength;
+    }
+
+    public StringPool(long budgetBytes) {
+        this(budgetBytes, 256);
+    }
+
+    static long estimatedSize(String value) {
+        return STRING_OVERHEAD + value.length();
+    }
+
+    @Override
+    public String apply(String value) {
+        return dedup(value);
+    }
+
+    // Same contract as String::new: an equal String, which is the pooled one when there is one
+    public MethodReferences.Constructors.StringCopier asCopier() {
+        return this::dedup;
+    }
+
+    public String dedup(String value) {
+        if (value.length() > maxLength) return value;
+        lookups.increment();
+        int h = value.hashCode();
+        // Fibonacci hashing: similar keys ("city-1", "city-2"...) have neighbouring hash codes,
+        // which would pile up in the same probe windows
+        int start = (h * 0x9E3779B9) >>> shift;
+
+        int empty = -1;
+        for (int i = 0; i < PROBES; i++) {
+            int slot = (start + i) & mask;
+            String pooled = slots.get(slot);
+            if (pooled == null) {
+                if (empty < 0) empty = slot;
+            } else if (pooled.hashCode() == h && pooled.equals(value)) {
+                if (referenced.get(slot) == 0) referenced.set(slot, 1);
+                hits.increment();
+                if (pooled != value) bytesSaved.add(estimatedSize(value));
+                return pooled;
+            }
+        }
+
+        long size = estimatedSize(value);
+        if (empty >= 0 && reserve(size)) {
+            if (slots.compareAndSet(empty, null, value)) return value;
+            retainedBytes.addAndGet(-size); // another thread took the slot
+            return value;
+        }
+        evictInto(start, value, size);
+        return value;
+    }
+
+    private boolean reserve(long size) {
+        long current;
+        do {
+            current = retainedBytes.get();
+            if (current + size > budgetBytes) return false;
+        } while (!retainedBytes.compareAndSet(current, current + size));
+        return true;
+    }
+
+    // Two sweeps over the window: the first clears reference bits, so the second always finds a victim
+    // unless other threads keep hitting or replacing the same slots, in which case the value is not pooled
+    private void evictInto(int start, String value, long size) {
+        for (int i = 0; i < 2 * PROBES; i++) {
+            int slot = (start + (i & (PROBES - 1))) & mask; // stay inside the window dedup() probes
+            if (referenced.get(slot) != 0) {
+                referenced.set(slot, 0);
+                continue;
+            }
+            String victim = slots.get(slot);
+            long delta = size - (victim == null ? 0 : estimatedSize(victim));
+            if (delta > 0 && !reserve(delta)) return;
+            if (slots.compareAndSet(slot, victim, value)) {
+                if (delta < 0) retainedBytes.addAndGet(delta);
+                if (victim != null) evictions.increment();
+                return;
+            }
+            if (delta > 0) retainedBytes.addAndGet(-delta);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(lookups.sum(), hits.sum(), bytesSaved.sum(), retainedBytes.get(), evictions.sum());
+    }
+
+    // bytesSaved: estimated size of the copies callers could drop because they got the pooled instance
+    public record Stats(long lookups, long hits, long bytesSaved, long retainedBytes, long evictions) {
+        public double hitRate() {
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Synthetic ingest: rows whose "city" column has 10 000 distinct values, each arriving as a fresh copy
+    private static List<String> ingest(int rows, MethodReferences.Constructors.StringCopier copier) {
+        List<String> column = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) column.add(copier.copy(new String("city-" + (i * 7919L % 10_000))));
+        return column;
+    }
+
+    public static void main(String[] args) {
+        // The StringCopier example from MethodReferences.Constructors
+        MethodReferences.Constructors.StringCopier methodRef1 = String::new;
+        StringPool pool = new StringPool(1 << 20);
+        MethodReferences.Constructors.StringCopier pooled = pool.asCopier();
+
+        System.out.println(methodRef1.copy("Zebra") == methodRef1.copy("Zebra")); // false
+        System.out.println(pooled.copy("Zebra").equals("Zebra"));                 // true
+        System.out.println(pooled.copy(new String("Zebra")) == pooled.copy(new String("Zebra"))); // true
+
+        int rows = 2_000_000;
+        long base = usedHeap();
+        List<String> copies = ingest(rows, methodRef1);
+        long copiesHeap = usedHeap() - base;
+        System.out.println("String::new  retained ~" + copiesHeap / (1 << 20) + " MB"); // ~110 MB
+        copies = null;
+
+        StringPool ingestPool = new StringPool(4 << 20);
+        base = usedHeap();
+        List<String> deduplicated = ingest(rows, ingestPool.asCopier());
+        long pooledHeap = usedHeap() - base;
+        System.out.println("StringPool   retained ~" + pooledHeap / (1 << 20) + " MB"); // ~8 MB: mostly the list itself
+        StringPool.Stats stats = ingestPool.stats();
+        System.out.printf("hit rate %.3f, ~%d MB saved%n", stats.hitRate(), stats.bytesSaved() / (1 << 20));
+        // hit rate 0.995, ~90 MB saved
+        System.out.println(deduplicated.size()); // 2000000
+    }
+}
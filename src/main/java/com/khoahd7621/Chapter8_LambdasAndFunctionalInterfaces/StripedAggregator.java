@@ -0,0 +1,127 @@
+package com.khoahd7621.Chapter8_LambdasAndFunctionalInterfaces;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+// Thread-safe replacement for BiConsumer<String, Integer> b1 = map::put on a plain HashMap.
+// From a parallel stream that HashMap gets corrupted, and Collections.synchronizedMap puts
+// every thread behind one lock.
+//
+// The keys are spread over a power-of-two number of stripes by hash; each stripe is a small
+// HashMap with its own lock, so threads only wait for each other when their keys share a stripe.
+// The stripe comes from the high bits of a multiplicative hash, because the HashMap inside picks its
+// bucket from the low bits: striping on those would leave most buckets of every stripe empty.
+// Unlike HashMap, null keys and values are rejected with a NullPointerException.
+// The merge function decides what happens when a key is already present (replace, sum, keep first...),
+// and accept(key, value) applies it, so the aggregator drops in wherever map::put was used.
+// For counters and sums, LongAdderMap avoids even the stripe lock.
+public class StripedAggregator<K, V> implements BiConsumer<K, V> {
+
+    private final Map<K, V>[] stripes;
+    private final int shift;
+    private final BinaryOperator<V> mergeFunction;
+
+    public StripedAggregator(int stripes, BinaryOperator<V> mergeFunction) {
+        if (stripes <= 0) throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        int size = 1;
+        while (size < stripes) size <<= 1;
+        this.stripes = newStripes(size);
+        this.shift = 32 - Integer.numberOfTrailingZeros(size);
+        this.mergeFunction = mergeFunction;
+    }
+
+    // Four stripes per available processor
+    public StripedAggregator(BinaryOperator<V> mergeFunction) {
+        this(4 * Runtime.getRuntime().availableProcessors(), mergeFunction);
+    }
+
+    // map::put semantics: the last value wins
+    public static <K, V> StripedAggregator<K, V> replacing() {
+        return new StripedAggregator<>((oldValue, newValue) -> newValue);
+    }
+
+    public static <K, V> StripedAggregator<K, V> merging(BinaryOperator<V> mergeFunction) {
+        return new StripedAggregator<>(mergeFunction);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V>[] newStripes(int size) {
+        Map<K, V>[] stripes = (Map<K, V>[]) new Map<?, ?>[size];
+        for (int i = 0; i < size; i++) stripes[i] = new HashMap<>();
+        return stripes;
+    }
+
+    // Top log2(stripes) bits of the Fibonacci hash; done in long so a single stripe (shift 32) works
+    private Map<K, V> stripe(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return stripes[(int) ((h & 0xFFFFFFFFL) >>> shift)];
+    }
+
+    public V put(K key, V value) {
+        Objects.requireNonNull(value); // like merge(), and so snapshot() can use Map.copyOf
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.put(key, value);
+        }
+    }
+
+    public V merge(K key, V value) {
+        return merge(key, value, mergeFunction);
+    }
+
+    public V merge(K key, V value, BinaryOperator<V> mergeFunction) {
+        Objects.requireNonNull(value);
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.merge(key, value, mergeFunction);
+        }
+    }
+
+    public V get(K key) {
+        Map<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    @Override
+    public void accept(K key, V value) {
+        merge(key, value);
+    }
+
+    // Immutable copy; each stripe is copied under its own lock, so writes racing with the
+    // snapshot may or may not be included
+    public Map<K, V> snapshot() {
+        Map<K, V> copy = new HashMap<>();
+        for (Map<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                copy.putAll(stripe);
+            }
+        }
+        return Map.copyOf(copy);
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    public static void main(String[] args) {
+        // The BiConsumer example from ConsumerAndBiComsumerFIs
+        StripedAggregator<String, Integer> map = StripedAggregator.replacing();
+        BiConsumer<String, Integer> b1 = map;
+        BiConsumer<String, Integer> b2 = (k, v) -> map.put(k, v);
+
+        b1.accept("chicken", 7);
+        b2.accept("chick", 1);
+        System.out.println(map.snapshot()); // {chicken=7, chick=1} (in some order)
+
+        // Safe from a parallel stream, summing instead of replacing
+        StripedAggregator<String, Integer> legs = StripedAggregator.merging(Integer::sum);
+        IntStream.range(0, 1_000).parallel().forEach(i -> legs.accept(i % 2 == 0 ? "chicken" : "chick", 2));
+        System.out.println(legs.get("chicken")); // 1000
+    }
+}